@@ -0,0 +1,77 @@
+package bench;
+
+import journal.JournalRecord;
+import store.TaskStore;
+import task.Task;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+final class FileManager {
+
+    private static final MethodHandle LOAD_TASKS;
+    private static final MethodHandle APPEND_TASK;
+    private static final MethodHandle UPDATE_TASK;
+    private static final MethodHandle FLUSH;
+    private static final MethodHandle TASKS_DIRECTORY;
+
+    static {
+        try {
+            Class<?> manager = Class.forName("AsyncFileManager");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            LOAD_TASKS = lookup.findStatic(manager, "loadTasksAsync",
+                    MethodType.methodType(CompletableFuture.class, String.class, TaskStore.class));
+            APPEND_TASK = lookup.findStatic(manager, "appendTaskToFileAsync",
+                    MethodType.methodType(CompletableFuture.class, String.class, Task.class));
+            UPDATE_TASK = lookup.findStatic(manager, "updateTaskAsync",
+                    MethodType.methodType(CompletableFuture.class, String.class, List.class, JournalRecord.class));
+            FLUSH = lookup.findStatic(manager, "flushAsync",
+                    MethodType.methodType(CompletableFuture.class, String.class));
+            TASKS_DIRECTORY = lookup.findStatic(manager, "getTasksDirectory",
+                    MethodType.methodType(String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private FileManager() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static CompletableFuture<Void> loadTasksAsync(String name, TaskStore store) {
+        return (CompletableFuture<Void>) invoke(LOAD_TASKS, name, store);
+    }
+
+    @SuppressWarnings("unchecked")
+    static CompletableFuture<Void> appendTaskToFileAsync(String name, Task task) {
+        return (CompletableFuture<Void>) invoke(APPEND_TASK, name, task);
+    }
+
+    @SuppressWarnings("unchecked")
+    static CompletableFuture<Void> updateTaskAsync(String name, List<Task> tasks, JournalRecord record) {
+        return (CompletableFuture<Void>) invoke(UPDATE_TASK, name, tasks, record);
+    }
+
+    @SuppressWarnings("unchecked")
+    static CompletableFuture<Void> flushAsync(String name) {
+        return (CompletableFuture<Void>) invoke(FLUSH, name);
+    }
+
+    static String getTasksDirectory() {
+        return (String) invoke(TASKS_DIRECTORY);
+    }
+
+    private static Object invoke(MethodHandle handle, Object... arguments) {
+        try {
+            return handle.invokeWithArguments(arguments);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import store.TaskStore;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoadBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private static final String BINARY = "-Dtasks.format=binary";
+
+    private String name;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        name = "bench-load-" + size;
+        if ("binary".equals(System.getProperty("tasks.format"))) {
+            TaskFixtures.writeBinarySnapshot(name, TaskFixtures.tasks(size, size));
+        } else {
+            TaskFixtures.writeTextSnapshot(name, TaskFixtures.tasks(size, size));
+        }
+        FileManager.loadTasksAsync(name, new TaskStore()).join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        TaskFixtures.deleteFiles(name);
+    }
+
+    @Benchmark
+    public TaskStore loadText() {
+        TaskStore store = new TaskStore();
+        FileManager.loadTasksAsync(name, store).join();
+        return store;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = BINARY)
+    public TaskStore loadBinary() {
+        TaskStore store = new TaskStore();
+        FileManager.loadTasksAsync(name, store).join();
+        return store;
+    }
+
+}
@@ -0,0 +1,60 @@
+package bench;
+
+import logger.TaskLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggerBenchmark {
+
+    private TaskLogger taskLogger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        taskLogger = new TaskLogger("bench-logger");
+        taskLogger.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        taskLogger.stop();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void logUncontended() {
+        taskLogger.log("Task added: \"Task - Description\" is pending.");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void logContended() {
+        taskLogger.log("Task added: \"Task - Description\" is pending.");
+    }
+
+    @Benchmark
+    @Threads(8)
+    @Fork(value = 1, jvmArgsAppend = "-Dlogger.overflow=DROP")
+    public void logContendedDrop() {
+        taskLogger.log("Task added: \"Task - Description\" is pending.");
+    }
+
+}
@@ -0,0 +1,101 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import journal.JournalRecord;
+import store.TaskStore;
+import task.Task;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    private static final String NO_FSYNC = "-Dtasks.commit.fsync=false";
+    private static final String NO_JOURNAL = "-Dtasks.journal=false";
+
+    @Param({"1000"})
+    public int size;
+
+    private String name;
+    private Task task;
+    private List<Task> tasks;
+    private JournalRecord record;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        name = "bench-persistence";
+        task = new Task("Task", "Description");
+        tasks = TaskFixtures.tasks(size, size);
+        record = JournalRecord.setTitle(tasks.get(0).getId(), "Renamed task");
+        TaskFixtures.writeTextSnapshot(name, tasks);
+        FileManager.loadTasksAsync(name, new TaskStore()).join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileManager.flushAsync(name).join();
+        TaskFixtures.deleteFiles(name);
+    }
+
+    @Benchmark
+    public void appendJournal() {
+        FileManager.appendTaskToFileAsync(name, task).join();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = NO_FSYNC)
+    public void appendJournalNoFsync() {
+        FileManager.appendTaskToFileAsync(name, task).join();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = NO_JOURNAL)
+    public void appendSnapshot() {
+        FileManager.appendTaskToFileAsync(name, task).join();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {NO_JOURNAL, NO_FSYNC})
+    public void appendSnapshotNoFsync() {
+        FileManager.appendTaskToFileAsync(name, task).join();
+    }
+
+    @Benchmark
+    public void commitUpdate() {
+        FileManager.updateTaskAsync(name, tasks, record).join();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = NO_FSYNC)
+    public void commitUpdateNoFsync() {
+        FileManager.updateTaskAsync(name, tasks, record).join();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {NO_JOURNAL, NO_FSYNC})
+    public void commitUpdateSnapshotNoFsync() {
+        FileManager.updateTaskAsync(name, tasks, record).join();
+    }
+
+}
@@ -0,0 +1,62 @@
+package bench;
+
+import format.BinaryTaskFormat;
+import format.TextTaskFormat;
+import task.Task;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+final class TaskFixtures {
+
+    private static final String[] FILE_EXTENSIONS = {".txt", ".txt.migrated", ".bin", ".journal", ".version"};
+
+    private TaskFixtures() {
+    }
+
+    static List<Task> tasks(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = new Task(i + 1, "Task " + i, "Description of task " + i);
+            switch (random.nextInt(3)) {
+                case 1 -> task.changePriority();
+                case 2 -> task.changeDone();
+                default -> { }
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    static void writeTextSnapshot(String name, List<Task> tasks) throws IOException {
+        deleteFiles(name);
+        StringBuilder sb = new StringBuilder();
+        for (Task task : tasks) {
+            sb.append(TextTaskFormat.encode(task)).append('\n');
+        }
+        Files.writeString(path(name, ".txt"), sb, StandardCharsets.UTF_8);
+    }
+
+    static void writeBinarySnapshot(String name, List<Task> tasks) throws IOException {
+        deleteFiles(name);
+        Files.write(path(name, ".bin"), BinaryTaskFormat.encode(tasks));
+    }
+
+    static void deleteFiles(String name) throws IOException {
+        for (String extension : FILE_EXTENSIONS) {
+            Files.deleteIfExists(path(name, extension));
+        }
+    }
+
+    private static Path path(String name, String extension) {
+        return Paths.get(FileManager.getTasksDirectory(), name + extension);
+    }
+
+}
@@ -0,0 +1,84 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import store.TaskStore;
+import task.Task;
+import task.state.Completed;
+import task.state.Pending;
+import task.state.Urgent;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TaskModelBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private TaskStore store;
+    private Task task;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new TaskStore();
+        store.replaceAll(TaskFixtures.tasks(size, size));
+        task = new Task("Task", "Description");
+    }
+
+    @Benchmark
+    public int[] pendingView() {
+        return store.snapshot().indexesOf(Pending.class, Urgent.class);
+    }
+
+    @Benchmark
+    public int[] urgentView() {
+        return store.snapshot().indexesOf(Urgent.class);
+    }
+
+    @Benchmark
+    public int[] completedView() {
+        return store.snapshot().indexesOf(Completed.class);
+    }
+
+    @Benchmark
+    public void pendingScan(Blackhole blackhole) {
+        List<Task> tasks = store.snapshot().tasks();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task current = tasks.get(i);
+            if (current.getState() instanceof Pending || current.getState() instanceof Urgent) {
+                blackhole.consume(i);
+            }
+        }
+    }
+
+    @Benchmark
+    public Task changeDone() {
+        task.changeDone();
+        return task;
+    }
+
+    @Benchmark
+    public Task changePriority() {
+        task.changePriority();
+        return task;
+    }
+
+}
@@ -0,0 +1,71 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    private static final int WRITERS = 4;
+    private static final long VALUES = 2_000_000;
+
+    @Test
+    void snapshotStaysConsistentUnderConcurrentRecords() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(Thread.ofPlatform().start(() -> {
+                awaitQuietly(start);
+                for (long value = 1; value <= VALUES; value++) {
+                    histogram.record(value);
+                }
+            }));
+        }
+        List<String> violations = new ArrayList<>();
+        Thread reader = Thread.ofPlatform().start(() -> {
+            awaitQuietly(start);
+            while (running.get()) {
+                LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+                if (snapshot.mean() > snapshot.max() || snapshot.p50() > snapshot.p99()
+                        || snapshot.p99() > snapshot.max()) {
+                    violations.add(snapshot.toString());
+                }
+            }
+        });
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        running.set(false);
+        reader.join();
+
+        assertTrue(violations.isEmpty(), () -> violations.size() + " inconsistent snapshot(s), first: " + violations.get(0));
+        LatencyHistogram.Snapshot done = histogram.snapshot();
+        assertEquals(WRITERS * VALUES, done.count());
+        assertEquals(VALUES, done.max());
+        assertEquals((VALUES + 1) / 2, done.mean());
+    }
+
+    @Test
+    void emptySnapshotIsZero() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(new LatencyHistogram.Snapshot(0, 0, 0, 0, 0), snapshot);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
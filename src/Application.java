@@ -1,5 +1,41 @@
+import executor.TaskExecutors;
+import metrics.TaskMetrics;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
 public class Application {
     public static void main(String[] args) {
+        if (args.length == 2 && args[0].equals("--export-csv")) {
+            AsyncFileManager.exportCsvAsync(args[1]).join();
+            return;
+        }
+        if ((args.length == 2 || args.length == 3) && args[0].equals("--batch")) {
+            boolean succeeded;
+            try (BufferedReader br = args.length == 3 && !args[2].equals("-")
+                    ? Files.newBufferedReader(Paths.get(args[2]))
+                    : new BufferedReader(new InputStreamReader(System.in))) {
+                succeeded = new TaskBatch(args[1], br, System.out).run();
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Failed to read the batch script: " + e.getMessage());
+            }
+            if (!succeeded) {
+                System.exit(1);
+            }
+            return;
+        }
+        TaskExecutors.maintenance().execute(TaskMetrics::registerMBean);
+        if ((args.length == 1 || args.length == 2) && args[0].equals("--serve")) {
+            try {
+                new TaskServer(args.length == 2 ? args[1] : TaskServer.DEFAULT_ADDRESS).serve();
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Failed to start the task server: " + e.getMessage());
+            }
+            return;
+        }
         new Thread(new Runnable() {
             @Override
             public void run() {
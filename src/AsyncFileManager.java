@@ -1,17 +1,113 @@
+import executor.TaskExecutors;
+import format.BinaryTaskFormat;
+import format.CheckpointView;
+import format.ChunkedTextLoader;
+import format.CsvTaskFormat;
+import format.TextTaskFormat;
+import journal.JournalRecord;
+import metrics.TaskMetrics;
+import store.IndexedTaskList;
+import store.TaskStore;
 import task.Task;
+import writer.GroupCommitWriter;
+import writer.VersionStamp;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.FileOutputStream;
-import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 public class AsyncFileManager {
 
     private static final String TASKS_DIRECTORY = "tasks";
+    private static final String TEXT_EXTENSION = ".txt";
+    private static final String BINARY_EXTENSION = ".bin";
+    private static final String JOURNAL_EXTENSION = ".journal";
+    private static final String CSV_EXTENSION = ".csv";
+    private static final String VERSION_EXTENSION = ".version";
+    private static final String LEASE_EXTENSION = ".lease";
+    private static final String MIGRATED_SUFFIX = ".migrated";
+
+    private static final boolean BINARY_ENABLED = "binary".equalsIgnoreCase(System.getProperty("tasks.format"));
+    private static final String TASKS_EXTENSION = BINARY_ENABLED ? BINARY_EXTENSION : TEXT_EXTENSION;
+
+    private static final boolean JOURNAL_ENABLED = !"false".equals(System.getProperty("tasks.journal"));
+    private static final long JOURNAL_COMPACT_BYTES = Long.getLong("tasks.journal.compactBytes", 1024 * 1024);
+    private static final long JOURNAL_COMPACT_MIN_BYTES = 4096;
+    private static final double JOURNAL_COMPACT_RATIO = 0.5;
+
+    private static final int LOAD_CHUNK_BYTES = Integer.getInteger("tasks.load.chunkBytes", 8 * 1024 * 1024);
+    private static final ChunkedTextLoader CHUNKED_LOADER =
+            new ChunkedTextLoader(LOAD_CHUNK_BYTES, ForkJoinPool.commonPool(), Charset.defaultCharset());
+    private static final ChunkedTextLoader.Progress NO_PROGRESS = (loadedBytes, totalBytes) -> { };
+    private static final Consumer<CheckpointView> IGNORE_MAPPED = checkpoint -> { };
+    private static final int JOURNAL_SCAN_BYTES = 4096;
+    private static final long NO_HEADER = -1;
+
+    private static final Map<String, FileVersion> versions = new ConcurrentHashMap<>();
+    private static final Map<String, FileLock> leases = new HashMap<>();
+
+    private record PendingCommit(long sequence, List<Task> tasks, List<JournalRecord> records, byte[] encoded) {
+    }
+
+    private static final class FileVersion {
+        private final List<PendingCommit> pending = new ArrayList<>();
+        private long nextSequence;
+        private long staleThrough = -1;
+        private volatile TaskStore store;
+        private long stampVersion = -1;
+        private Object snapshotKey;
+        private long snapshotSize = -1;
+        private long snapshotModified = -1;
+        private long journalOffset;
+        private boolean stale;
+
+        private synchronized void stampSnapshot(Path snapshot) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(snapshot, BasicFileAttributes.class);
+                snapshotKey = attributes.fileKey();
+                snapshotSize = attributes.size();
+                snapshotModified = attributes.lastModifiedTime().toMillis();
+            } catch (IOException e) {
+                stale = true;
+            }
+        }
+
+        private synchronized boolean matchesSnapshot(Path snapshot) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(snapshot, BasicFileAttributes.class);
+                return Objects.equals(snapshotKey, attributes.fileKey())
+                        && snapshotSize == attributes.size()
+                        && snapshotModified == attributes.lastModifiedTime().toMillis();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
 
     static {
         ensureFileDirectoryExists();
@@ -28,83 +124,661 @@ public class AsyncFileManager {
         return TASKS_DIRECTORY;
     }
 
+    public static boolean isJournalEnabled() {
+        return JOURNAL_ENABLED;
+    }
+
+    public static boolean isTasksFile(String name, String fileName) {
+        return fileName.equals(name + TASKS_EXTENSION) || fileName.equals(name + JOURNAL_EXTENSION);
+    }
+
+    private static String tasksFilePath(String name) {
+        return TASKS_DIRECTORY + "/" + name + TASKS_EXTENSION;
+    }
+
+    private static String textFilePath(String name) {
+        return TASKS_DIRECTORY + "/" + name + TEXT_EXTENSION;
+    }
+
+    private static String journalFilePath(String name) {
+        return TASKS_DIRECTORY + "/" + name + JOURNAL_EXTENSION;
+    }
+
+    private static FileVersion versionOf(String name) {
+        return versions.computeIfAbsent(name, n -> new FileVersion());
+    }
+
+    public static boolean acquireLease(String name) {
+        synchronized (leases) {
+            FileLock lease = leases.get(name);
+            if (lease != null && lease.isValid()) {
+                return true;
+            }
+            FileChannel channel = null;
+            try {
+                channel = FileChannel.open(Paths.get(TASKS_DIRECTORY + "/" + name + LEASE_EXTENSION),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                lease = channel.tryLock();
+            } catch (IOException | OverlappingFileLockException e) {
+                lease = null;
+            }
+            if (lease == null) {
+                closeQuietly(channel);
+                return false;
+            }
+            leases.put(name, lease);
+            return true;
+        }
+    }
+
+    public static void releaseLease(String name) {
+        synchronized (leases) {
+            FileLock lease = leases.remove(name);
+            if (lease != null) {
+                closeQuietly(lease.channel());
+            }
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static VersionStamp stampOf(String name) {
+        return VersionStamp.of(Paths.get(TASKS_DIRECTORY + "/" + name + VERSION_EXTENSION));
+    }
+
+    private static GroupCommitWriter snapshotWriter(String name) {
+        Path snapshot = Paths.get(tasksFilePath(name));
+        FileVersion version = versionOf(name);
+        return GroupCommitWriter.of(snapshot, (start, end, replaced) -> {
+            synchronized (version) {
+                if (!replaced && version.snapshotSize >= 0 && start != version.snapshotSize) {
+                    version.stale = true;
+                }
+                version.stampSnapshot(snapshot);
+            }
+        });
+    }
+
+    private static GroupCommitWriter journalWriter(String name) {
+        return GroupCommitWriter.of(Paths.get(journalFilePath(name)));
+    }
+
+    private static GroupCommitWriter commitWriter(String name) {
+        return JOURNAL_ENABLED ? journalWriter(name) : snapshotWriter(name);
+    }
+
     public static CompletableFuture<Boolean> nameFileExistsAsync(String name) {
         return CompletableFuture.supplyAsync(() -> {
             try (BufferedReader ignored = new BufferedReader(
-                    new FileReader(TASKS_DIRECTORY + "/" + name + ".txt"))) {
+                    new FileReader(tasksFilePath(name)))) {
                 return true;
             } catch (IOException e) {
-                return false;
+                return BINARY_ENABLED && new File(textFilePath(name)).exists();
             }
-        });
+        }, TaskExecutors.disk());
+    }
+
+    public static CompletableFuture<Void> loadTasksAsync(String name, TaskStore store) {
+        return loadTasksAsync(name, store, NO_PROGRESS);
     }
 
-    public static CompletableFuture<Void> loadTasksAsync(String name, List<Task> tasks) {
+    public static CompletableFuture<Void> loadTasksAsync(String name, TaskStore store, ChunkedTextLoader.Progress progress) {
+        return loadTasksAsync(name, store, progress, IGNORE_MAPPED);
+    }
+
+    public static CompletableFuture<Void> loadTasksAsync(String name, TaskStore store, ChunkedTextLoader.Progress progress,
+                                                         Consumer<CheckpointView> mapped) {
         return CompletableFuture.runAsync(() -> {
-            String filePath = TASKS_DIRECTORY + "/" + name + ".txt";
-            try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-                String line;
-                tasks.clear();
-                while ((line = reader.readLine()) != null) {
-                    String[] taskData = line.split(",");
-                    if (taskData.length == 3) {
-                        Task task = new Task(taskData[0], taskData[1]);
-                        if (taskData[2].equals("Completed")) {
-                            task.changeDone();
-                        } else if (taskData[2].equals("Urgent")) {
-                            task.changePriority();
-                        }
-                        tasks.add(task);
-                    }
+            try {
+                long started = TaskMetrics.LOAD.start();
+                versionOf(name).store = store;
+                store.setIdAllocator(floor -> reserveId(name, floor));
+                if (BINARY_ENABLED && !new File(tasksFilePath(name)).exists()) {
+                    stampOf(name).commit(stamped -> migrateToBinary(name));
+                } else if (BINARY_ENABLED && isLegacyBinary(name)) {
+                    stampOf(name).commit(stamped -> upgradeBinary(name));
                 }
+                stampOf(name).recover(stamped -> recoverJournal(name));
+                reloadTasks(name, store, progress, mapped);
+                TaskMetrics.LOAD.stop(started);
             } catch (IOException e) {
                 throw new IllegalArgumentException("Failed to load tasks: " + e.getMessage());
             }
-        });
+        }, TaskExecutors.disk());
     }
 
-    public static CompletableFuture<Void> createTasksFileAsync(String name) {
-        return CompletableFuture.runAsync(() -> {
-            String filePath = TASKS_DIRECTORY + "/" + name + ".txt";
-            try (FileOutputStream fos = new FileOutputStream(filePath, true);
-                 OutputStreamWriter writer = new OutputStreamWriter(fos, StandardCharsets.UTF_8)) {
-                writer.flush();
-                fos.getFD().sync();
+    private static long reserveId(String name, long floor) {
+        try {
+            return stampOf(name).reserveId(floor);
+        } catch (IOException e) {
+            return floor;
+        }
+    }
+
+    public static CompletableFuture<Void> refreshTasksAsync(String name, TaskStore store) {
+        return commitWriter(name).execute(() -> {
+            try {
+                long started = TaskMetrics.RELOAD.start();
+                refreshTasks(name, store);
+                TaskMetrics.RELOAD.stop(started);
+                TaskMetrics.RELOAD_COUNT.increment();
             } catch (IOException e) {
-                throw new IllegalArgumentException("Failed to create " + name + ".txt: " + e.getMessage());
+                throw new IllegalArgumentException("Failed to load tasks: " + e.getMessage());
             }
         });
     }
 
-    public static CompletableFuture<Void> appendTaskToFileAsync(String name, Task task) {
+    private static void refreshTasks(String name, TaskStore store) throws IOException {
+        FileVersion version = versionOf(name);
+        synchronized (version) {
+            long stamped = stampOf(name).read();
+            if (stamped == version.stampVersion) {
+                return;
+            }
+            if (!version.stale && version.matchesSnapshot(Paths.get(tasksFilePath(name)))) {
+                long journalSize = new File(journalFilePath(name)).length();
+                if (journalSize > version.journalOffset) {
+                    byte[] delta = readJournal(name, version.journalOffset);
+                    version.journalOffset += store.update(tasks -> {
+                        int consumed = applyJournal(delta, tasks);
+                        replayPending(version, tasks);
+                        return consumed;
+                    });
+                    version.stampVersion = stamped;
+                    return;
+                }
+            }
+            TaskMetrics.FULL_RELOAD_COUNT.increment();
+            reloadTasks(name, store, NO_PROGRESS, IGNORE_MAPPED);
+        }
+    }
+
+    private static void reloadTasks(String name, TaskStore store, ChunkedTextLoader.Progress progress,
+                                    Consumer<CheckpointView> mapped) throws IOException {
+        FileVersion version = versionOf(name);
+        synchronized (version) {
+            IndexedTaskList loaded = new IndexedTaskList();
+            long stamped = stampOf(name).read();
+            long checkpoint = stampOf(name).readCheckpoint();
+            version.stampSnapshot(Paths.get(tasksFilePath(name)));
+            readSnapshot(name, loaded, progress, mapped);
+            byte[] journal = readJournal(name, 0);
+            boolean current = extendsCheckpoint(journal, checkpoint);
+            version.journalOffset = current ? applyJournal(journal, loaded) : journal.length;
+            version.stale = !current;
+            version.stampVersion = stamped;
+            rebase(version, store, loaded);
+        }
+    }
+
+    private static void rebase(FileVersion version, TaskStore store, List<Task> committed) {
+        store.update(tasks -> {
+            tasks.clear();
+            tasks.addAll(committed);
+            replayPending(version, tasks);
+            return null;
+        });
+    }
+
+    private static void replayPending(FileVersion version, IndexedTaskList tasks) {
+        synchronized (version.pending) {
+            for (PendingCommit commit : version.pending) {
+                for (JournalRecord record : commit.records()) {
+                    record.apply(tasks);
+                }
+                version.staleThrough = commit.sequence();
+            }
+        }
+    }
+
+    private static IndexedTaskList readTasks(String name) throws IOException {
+        IndexedTaskList tasks = new IndexedTaskList();
+        long checkpoint = stampOf(name).readCheckpoint();
+        readSnapshot(name, tasks, NO_PROGRESS, IGNORE_MAPPED);
+        byte[] journal = readJournal(name, 0);
+        if (extendsCheckpoint(journal, checkpoint)) {
+            applyJournal(journal, tasks);
+        }
+        return tasks;
+    }
+
+    private static void readSnapshot(String name, List<Task> tasks, ChunkedTextLoader.Progress progress,
+                                     Consumer<CheckpointView> mapped) throws IOException {
+        Path path = Paths.get(tasksFilePath(name));
+        if (BINARY_ENABLED) {
+            readBinarySnapshot(path, tasks, mapped);
+        } else {
+            if (mapped != IGNORE_MAPPED) {
+                mapped.accept(CheckpointView.text(mapPrefix(path)));
+            }
+            readTextSnapshot(path, tasks, progress);
+        }
+    }
+
+    private static MappedByteBuffer mapPrefix(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), Integer.MAX_VALUE));
+        }
+    }
+
+    private static void readBinarySnapshot(Path path, List<Task> tasks) throws IOException {
+        readBinarySnapshot(path, tasks, IGNORE_MAPPED);
+    }
+
+    private static void readBinarySnapshot(Path path, List<Task> tasks, Consumer<CheckpointView> mapped) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.accept(CheckpointView.binary(buffer.duplicate()));
+            BinaryTaskFormat.decode(buffer, tasks);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+    }
+
+    private static void readTextSnapshot(Path path, List<Task> tasks, ChunkedTextLoader.Progress progress) throws IOException {
+        if (Files.size(path) > LOAD_CHUNK_BYTES) {
+            tasks.addAll(CHUNKED_LOADER.load(path, progress));
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(path.toFile()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Task task = TextTaskFormat.parse(line);
+                if (task != null) {
+                    tasks.add(task);
+                }
+            }
+        }
+    }
+
+    private static byte[] readJournal(String name, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(journalFilePath(name)), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= offset) {
+                return new byte[0];
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size - offset));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            return Arrays.copyOf(buffer.array(), buffer.position());
+        } catch (NoSuchFileException e) {
+            return new byte[0];
+        }
+    }
+
+    private static int applyJournal(byte[] data, IndexedTaskList tasks) {
+        int consumed = 0;
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] == '\n') {
+                JournalRecord record = JournalRecord.decode(new String(data, consumed, i - consumed, StandardCharsets.UTF_8));
+                if (record != null) {
+                    record.apply(tasks);
+                }
+                consumed = i + 1;
+            }
+        }
+        return consumed;
+    }
+
+    private static boolean extendsCheckpoint(byte[] journal, long checkpoint) {
+        long header = headerCheckpoint(journal);
+        return header == NO_HEADER || header == checkpoint;
+    }
+
+    private static long headerCheckpoint(byte[] journal) {
+        for (int i = 0; i < journal.length && i < JOURNAL_SCAN_BYTES; i++) {
+            if (journal[i] == '\n') {
+                JournalRecord header = JournalRecord.decode(new String(journal, 0, i, StandardCharsets.UTF_8));
+                return header != null && header.getType() == JournalRecord.Type.CHECKPOINT ? header.getId() : NO_HEADER;
+            }
+        }
+        return NO_HEADER;
+    }
+
+    private static Void recoverJournal(String name) throws IOException {
+        repairJournal(name, Paths.get(journalFilePath(name)), stampOf(name).readCheckpoint());
+        return null;
+    }
+
+    private static long repairJournal(String name, Path journal, long checkpoint) throws IOException {
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            ByteBuffer head = ByteBuffer.allocate((int) Math.min(size, JOURNAL_SCAN_BYTES));
+            channel.read(head, 0);
+            long header = headerCheckpoint(Arrays.copyOf(head.array(), head.position()));
+            if (header != NO_HEADER && header < checkpoint) {
+                channel.truncate(0);
+                return 0;
+            }
+            if (header > checkpoint) {
+                stampOf(name).markCheckpoint(header);
+            }
+            long end = size;
+            ByteBuffer tail = ByteBuffer.allocate(JOURNAL_SCAN_BYTES);
+            while (end > 0) {
+                long from = Math.max(0, end - JOURNAL_SCAN_BYTES);
+                tail.clear().limit((int) (end - from));
+                channel.read(tail, from);
+                int i = tail.position() - 1;
+                while (i >= 0 && tail.get(i) != '\n') {
+                    i--;
+                }
+                if (i >= 0) {
+                    end = from + i + 1;
+                    break;
+                }
+                end = from;
+            }
+            if (end < size) {
+                TaskMetrics.TORN_RECORD_COUNT.increment();
+                channel.truncate(end);
+            }
+            return end;
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    private static Void migrateToBinary(String name) throws IOException {
+        Path text = Paths.get(textFilePath(name));
+        if (!Files.exists(text)) {
+            return null;
+        }
+        List<Task> tasks = new IndexedTaskList();
+        readTextSnapshot(text, tasks, NO_PROGRESS);
+        GroupCommitWriter.replaceAtomically(Paths.get(tasksFilePath(name)), BinaryTaskFormat.encode(tasks));
+        Files.move(text, Paths.get(textFilePath(name) + MIGRATED_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+        return null;
+    }
+
+    private static boolean isLegacyBinary(String name) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(tasksFilePath(name)), StandardOpenOption.READ)) {
+            return BinaryTaskFormat.isLegacy(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private static Void upgradeBinary(String name) throws IOException {
+        Path path = Paths.get(tasksFilePath(name));
+        if (!isLegacyBinary(name)) {
+            return null;
+        }
+        List<Task> tasks = new IndexedTaskList();
+        readBinarySnapshot(path, tasks);
+        GroupCommitWriter.replaceAtomically(path, BinaryTaskFormat.encode(tasks));
+        return null;
+    }
+
+    public static CompletableFuture<Void> exportCsvAsync(String name) {
         return CompletableFuture.runAsync(() -> {
-            String filePath = TASKS_DIRECTORY + "/" + name + ".txt";
-            try (FileOutputStream fos = new FileOutputStream(filePath, true);
-                 OutputStreamWriter writer = new OutputStreamWriter(fos, StandardCharsets.UTF_8)) {
-                writer.write(task.getTitle() + "," + task.getDescription() + ","
-                        + task.getState().getClass().getSimpleName() + "\n");
-                writer.flush();
-                fos.getFD().sync();
+            try {
+                if (BINARY_ENABLED && !new File(tasksFilePath(name)).exists()) {
+                    stampOf(name).commit(stamped -> migrateToBinary(name));
+                }
+                Path csv = Paths.get(TASKS_DIRECTORY + "/" + name + CSV_EXTENSION);
+                GroupCommitWriter.replaceAtomically(csv, CsvTaskFormat.encode(readTasks(name)));
             } catch (IOException e) {
-                throw new IllegalArgumentException("Failed to append task to " + name + ".txt: " + e.getMessage());
+                throw new IllegalArgumentException("Failed to export " + name + CSV_EXTENSION + ": " + e.getMessage());
             }
-        });
+        }, TaskExecutors.disk());
+    }
+
+    public static CompletableFuture<Void> createTasksFileAsync(String name) {
+        byte[] data = BINARY_ENABLED ? BinaryTaskFormat.header() : new byte[0];
+        return snapshotWriter(name).append(data)
+                .exceptionally(e -> {
+                    throw new IllegalArgumentException("Failed to create " + name + TASKS_EXTENSION + ": " + e.getMessage());
+                });
+    }
+
+    public static CompletableFuture<Void> appendTaskToFileAsync(String name, Task task) {
+        return commitAsync(name, null, List.of(JournalRecord.add(task)));
+    }
+
+    public static CompletableFuture<Void> updateTaskAsync(String name, List<Task> tasks, JournalRecord record) {
+        return updateTasksAsync(name, tasks, List.of(record));
+    }
+
+    public static CompletableFuture<Void> updateTasksAsync(String name, List<Task> tasks, List<JournalRecord> records) {
+        return commitAsync(name, JOURNAL_ENABLED ? null : List.copyOf(tasks), records);
     }
 
     public static CompletableFuture<Void> updateTasksFileAsync(String name, List<Task> tasks) {
-        return CompletableFuture.runAsync(() -> {
-            String filePath = TASKS_DIRECTORY + "/" + name + ".txt";
-            try (FileOutputStream fos = new FileOutputStream(filePath);
-                 OutputStreamWriter writer = new OutputStreamWriter(fos, StandardCharsets.UTF_8)) {
-                for (Task task : tasks) {
-                    writer.write(task.getTitle() + "," + task.getDescription() + "," + task.getState().getClass().getSimpleName() + "\n");
+        byte[] data = toSnapshot(tasks);
+        FileVersion version = versionOf(name);
+        return snapshotWriter(name).execute(() -> {
+            try {
+                synchronized (version) {
+                    stampOf(name).commit(stamped -> {
+                        replaceSnapshot(name, data, stamped);
+                        markCommitted(name, version, stamped, stamped == version.stampVersion);
+                        return null;
+                    });
                 }
-                writer.flush();
-                fos.getFD().sync();
             } catch (IOException e) {
-                throw new IllegalArgumentException("Failed to update " + name + ".txt: " + e.getMessage());
+                throw new IllegalArgumentException("Failed to update " + name + TASKS_EXTENSION + ": " + e.getMessage());
             }
         });
     }
 
+    private static CompletableFuture<Void> commitAsync(String name, List<Task> tasks, List<JournalRecord> records) {
+        FileVersion version = versionOf(name);
+        StringBuilder sb = new StringBuilder();
+        for (JournalRecord record : records) {
+            sb.append(record.encode()).append('\n');
+        }
+        byte[] encoded = sb.toString().getBytes(StandardCharsets.UTF_8);
+        synchronized (version.pending) {
+            version.pending.add(new PendingCommit(version.nextSequence++, tasks, records, encoded));
+        }
+        return commitWriter(name).commit(encoded.length, () -> commitPending(name));
+    }
+
+    private static void commitPending(String name) {
+        FileVersion version = versionOf(name);
+        List<PendingCommit> batch;
+        synchronized (version.pending) {
+            batch = List.copyOf(version.pending);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            synchronized (version) {
+                if (JOURNAL_ENABLED) {
+                    boolean behind = commitJournal(name, version, batch);
+                    removePending(version, batch);
+                    if (behind && version.store != null) {
+                        TaskMetrics.REBASE_COUNT.increment();
+                        refreshTasks(name, version.store);
+                    }
+                } else {
+                    IndexedTaskList merged = commitSnapshot(name, version, batch);
+                    removePending(version, batch);
+                    if (merged != null && version.store != null) {
+                        TaskMetrics.REBASE_COUNT.increment();
+                        rebase(version, version.store, merged);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to commit tasks to " + name + TASKS_EXTENSION + ": " + e.getMessage());
+        }
+        if (JOURNAL_ENABLED && needsCompaction(name)) {
+            checkpoint(name);
+        }
+    }
+
+    private static boolean commitJournal(String name, FileVersion version, List<PendingCommit> batch) throws IOException {
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        for (PendingCommit commit : batch) {
+            records.writeBytes(commit.encoded());
+        }
+        return stampOf(name).commit(stamped -> {
+            Path journal = Paths.get(journalFilePath(name));
+            long checkpoint = stampOf(name).readCheckpoint();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            if (repairJournal(name, journal, checkpoint) == 0) {
+                out.writeBytes((JournalRecord.checkpoint(checkpoint).encode() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            records.writeTo(out);
+            byte[] data = out.toByteArray();
+            long start = GroupCommitWriter.appendDurably(journal, data);
+            if (stamped != version.stampVersion || start != version.journalOffset) {
+                return true;
+            }
+            version.journalOffset = start + data.length;
+            version.stampVersion = stamped + 1;
+            return false;
+        });
+    }
+
+    private static IndexedTaskList commitSnapshot(String name, FileVersion version, List<PendingCommit> batch) throws IOException {
+        boolean stale;
+        synchronized (version.pending) {
+            stale = batch.get(0).sequence() <= version.staleThrough;
+        }
+        return stampOf(name).commit(stamped -> {
+            boolean behind = stamped != version.stampVersion;
+            IndexedTaskList merged = null;
+            if (behind || stale || !commitLocally(name, batch, stamped)) {
+                merged = readTasks(name);
+                for (PendingCommit commit : batch) {
+                    for (JournalRecord record : commit.records()) {
+                        record.apply(merged);
+                    }
+                }
+                replaceSnapshot(name, toSnapshot(merged), stamped);
+            }
+            markCommitted(name, version, stamped, true);
+            return behind ? merged : null;
+        });
+    }
+
+    private static boolean commitLocally(String name, List<PendingCommit> batch, long stamped) throws IOException {
+        int base = batch.size() - 1;
+        while (base >= 0 && batch.get(base).tasks() == null) {
+            base--;
+        }
+        ByteArrayOutputStream added = new ByteArrayOutputStream();
+        for (int i = base + 1; i < batch.size(); i++) {
+            for (JournalRecord record : batch.get(i).records()) {
+                Task task = record.task();
+                if (task == null) {
+                    return false;
+                }
+                added.writeBytes(toRecord(task));
+            }
+        }
+        if (base < 0) {
+            GroupCommitWriter.appendDurably(Paths.get(tasksFilePath(name)), added.toByteArray());
+            return true;
+        }
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.writeBytes(toSnapshot(batch.get(base).tasks()));
+        data.writeBytes(added.toByteArray());
+        replaceSnapshot(name, data.toByteArray(), stamped);
+        return true;
+    }
+
+    private static void replaceSnapshot(String name, byte[] data, long stamped) throws IOException {
+        GroupCommitWriter.replaceAtomically(Paths.get(tasksFilePath(name)), data);
+        stampOf(name).markCheckpoint(stamped + 1);
+        Files.deleteIfExists(Paths.get(journalFilePath(name)));
+    }
+
+    private static void markCommitted(String name, FileVersion version, long stamped, boolean synced) {
+        if (synced) {
+            version.stampSnapshot(Paths.get(tasksFilePath(name)));
+            version.journalOffset = 0;
+            version.stampVersion = stamped + 1;
+        } else {
+            version.stale = true;
+        }
+    }
+
+    private static void removePending(FileVersion version, List<PendingCommit> batch) {
+        synchronized (version.pending) {
+            version.pending.subList(0, batch.size()).clear();
+        }
+    }
+
+    public static CompletableFuture<Void> checkpointAsync(String name) {
+        return journalWriter(name).execute(() -> checkpoint(name));
+    }
+
+    public static CompletableFuture<Void> flushAsync(String name) {
+        return CompletableFuture.allOf(
+                snapshotWriter(name).execute(() -> { }),
+                journalWriter(name).execute(() -> { }));
+    }
+
+    private static boolean needsCompaction(String name) {
+        long journalSize = new File(journalFilePath(name)).length();
+        if (journalSize >= JOURNAL_COMPACT_BYTES) {
+            return true;
+        }
+        long snapshotSize = new File(tasksFilePath(name)).length();
+        return journalSize >= JOURNAL_COMPACT_MIN_BYTES && journalSize > snapshotSize * JOURNAL_COMPACT_RATIO;
+    }
+
+    private static void checkpoint(String name) {
+        Path snapshot = Paths.get(tasksFilePath(name));
+        Path journal = Paths.get(journalFilePath(name));
+        if (!Files.exists(journal)) {
+            return;
+        }
+        FileVersion version = versionOf(name);
+        try {
+            synchronized (version) {
+                TaskStore store = version.store;
+                TaskStore.Snapshot current = store == null ? null : store.inspect(published -> {
+                    synchronized (version.pending) {
+                        return version.pending.isEmpty() ? published : null;
+                    }
+                });
+                stampOf(name).commit(stamped -> {
+                    boolean inSync = stamped == version.stampVersion && !version.stale
+                            && version.matchesSnapshot(snapshot) && Files.size(journal) == version.journalOffset;
+                    List<Task> tasks = inSync && current != null ? current.tasks() : readTasks(name);
+                    replaceSnapshot(name, toSnapshot(tasks), stamped);
+                    TaskMetrics.CHECKPOINT_COUNT.increment();
+                    markCommitted(name, version, stamped, inSync);
+                    return null;
+                });
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to checkpoint " + name + TASKS_EXTENSION + ": " + e.getMessage());
+        }
+    }
+
+    private static byte[] toRecord(Task task) {
+        if (BINARY_ENABLED) {
+            return BinaryTaskFormat.encode(task);
+        }
+        return (TextTaskFormat.encode(task) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] toSnapshot(List<Task> tasks) {
+        if (BINARY_ENABLED) {
+            return BinaryTaskFormat.encode(tasks);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Task task : tasks) {
+            sb.append(TextTaskFormat.encode(task)).append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
 }
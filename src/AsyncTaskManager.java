@@ -1,97 +1,242 @@
+import batch.BulkOperation;
+import event.TaskEvent;
+import event.TaskEventBus;
+import executor.TaskExecutors;
+import format.CheckpointView;
+import journal.JournalRecord;
+import store.TaskStore;
 import validator.TaskValidator;
+import task.DueTime;
 import task.Task;
+import task.state.Completed;
+import task.state.Pending;
 import task.state.Urgent;
 import logger.TaskLogger;
+import metrics.TaskMetrics;
+import render.TaskRenderer;
+import search.SearchIndex;
+import timer.TaskDeadlines;
 
 import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.InputStreamReader;
 import java.io.IOException;
-import java.util.List;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class AsyncTaskManager {
 
-    private final String INPUT_ERROR_MESSAGE = "Error has occurred. Please enter it again.";
+    private final String TASK_REMOVED_MESSAGE = "The task has been removed by another session.";
+    private final int LOAD_PROGRESS_STEP = 10;
+    private final int MAIN_MENU_CHOICES = 8;
+    private final int SEARCH_LIMIT = Integer.getInteger("tasks.search.limit", 20);
+    private final int NEXT_LIMIT = Integer.getInteger("tasks.next.limit", 10);
+    private final int SUB_MENU_CHOICES = 4;
+    private final int BULK_MENU_CHOICES = 3;
+    private final int MODIFY_MENU_CHOICES = 6;
+    private final int GO_BACK = -1;
+    private final int NEXT_PAGE = -2;
+    private final int PREVIOUS_PAGE = -3;
 
     private String name;
-    private List<Task> tasks;
+    private TaskWorkspace workspace;
+    private TaskStore store;
+    private TaskRenderer renderer;
     private final BufferedReader br;
+    private final PrintStream out;
+    private final Executor inputExecutor;
     private final ReentrantLock lock;
     private TaskLogger taskLogger;
-    private Thread fileWatcherThread;
+    private TaskEventBus.Subscriber events;
+    private TaskEvent.Source source;
+    private TaskEvent.Source bulkSource;
+    private final AtomicInteger otherChanges;
+    private volatile String latestOtherChange;
+    private int loadPercent;
+    private volatile boolean awaitingLoad;
 
     public AsyncTaskManager() {
-        name = "";
-        br = new BufferedReader(new InputStreamReader(System.in));
-        tasks = new ArrayList<>();
-        lock = new ReentrantLock();
+        this(new BufferedReader(new InputStreamReader(System.in)), System.out, TaskExecutors.console());
+    }
+
+    public AsyncTaskManager(BufferedReader br, PrintStream out, Executor inputExecutor) {
+        this.name = "";
+        this.br = br;
+        this.out = out;
+        this.inputExecutor = inputExecutor;
+        this.lock = new ReentrantLock();
+        this.otherChanges = new AtomicInteger();
     }
 
     private void offerTask(Task task) {
-        tasks.add(task);
+        store.update(source, tasks -> {
+            tasks.add(task);
+            reportFailure(AsyncFileManager.appendTaskToFileAsync(name, task));
+            return null;
+        });
+    }
+
+    private boolean deleteTask(Task task) {
+        return store.update(source, tasks -> {
+            if (tasks.removeById(task.getId()) == null) {
+                return false;
+            }
+            reportFailure(AsyncFileManager.updateTaskAsync(name, tasks, JournalRecord.delete(task.getId())));
+            return true;
+        });
     }
 
-    private void deleteTask(Task task) {
-        tasks.remove(task);
+    private Task modifyTask(Task task, Consumer<Task> change, Function<Task, JournalRecord> toRecord) {
+        return modifyTaskRecords(task, change, toRecord.andThen(List::of));
+    }
+
+    private Task modifyTaskRecords(Task task, Consumer<Task> change, Function<Task, List<JournalRecord>> toRecords) {
+        return store.update(source, tasks -> {
+            Task current = tasks.find(task.getId());
+            if (current == null) {
+                return null;
+            }
+            Task modified = new Task(current);
+            change.accept(modified);
+            tasks.replace(modified);
+            reportFailure(AsyncFileManager.updateTasksAsync(name, tasks, toRecords.apply(modified)));
+            return modified;
+        });
+    }
+
+    private void reportFailure(CompletableFuture<Void> commit) {
+        commit.whenComplete((result, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                String message = "Your last change could not be saved: " + cause.getMessage();
+                out.println("\n" + message);
+                taskLogger.log(message);
+            }
+        });
     }
 
     public void start() {
-        inputNameAsync().thenCompose(v -> {
-            this.taskLogger = new TaskLogger(name);
-            this.taskLogger.start();
-            return AsyncFileManager.nameFileExistsAsync(name).thenCompose(isExist -> {
-                if (isExist) {
-                    return AsyncFileManager.loadTasksAsync(name, tasks);
-                } else {
-                    return AsyncFileManager.createTasksFileAsync(name);
-                }
-            });
-        }).thenRun(() -> {
-            fileWatcherThread = new Thread(new TaskFileWatcher(name, tasks));
-            fileWatcherThread.setDaemon(true);
-            fileWatcherThread.start();
+        try {
+            run();
+        } catch (CompletionException e) {
+            if (!(e.getCause() instanceof UncheckedIOException)) {
+                throw e;
+            }
+        }
+    }
+
+    private void run() {
+        inputNameAsync().join();
+        workspace = TaskWorkspace.acquire(name, this::printLoadProgress);
+        store = workspace.getStore();
+        renderer = workspace.getRenderer();
+        taskLogger = workspace.getTaskLogger();
+        source = new TaskEvent.Source(this, true);
+        bulkSource = new TaskEvent.Source(this, false);
+        events = workspace.getEvents().subscribe(this::trackOtherChange);
+        try {
             while (true) {
+                printOtherChanges();
                 printWelcomeMessage();
-                byte choice = inputChoiceAsync().join();
+                byte choice = inputChoiceAsync(MAIN_MENU_CHOICES).join();
                 if (!taskLoop(choice)) {
                     break;
                 }
             }
+        } finally {
             shutdown();
-        }).join();
+        }
     }
 
-    private void shutdown() {
-        System.out.println("Goodbye, " + name + "!");
-        if (taskLogger != null) {
-            taskLogger.stop();
+    private String readLine() {
+        String line;
+        try {
+            line = br.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (line == null) {
+            throw new UncheckedIOException(new EOFException("Input closed"));
+        }
+        return line;
+    }
+
+    private synchronized void printLoadProgress(long loadedBytes, long totalBytes) {
+        int percent = (int) (loadedBytes * 100 / totalBytes);
+        if (percent / LOAD_PROGRESS_STEP > loadPercent / LOAD_PROGRESS_STEP) {
+            loadPercent = percent;
+            if (awaitingLoad) {
+                out.println("Loading tasks... " + percent + "%");
+            }
+        }
+    }
+
+    private void awaitTasks() {
+        if (workspace.isLoaded()) {
+            return;
+        }
+        synchronized (this) {
+            awaitingLoad = true;
+            out.println("Loading tasks... " + loadPercent + "%");
         }
-        if (fileWatcherThread != null && fileWatcherThread.isAlive()) {
-            fileWatcherThread.interrupt();
+        try {
+            workspace.awaitLoaded();
+        } finally {
+            awaitingLoad = false;
+        }
+    }
+
+    private void trackOtherChange(TaskEvent event) {
+        if (event.origin() instanceof TaskEvent.Source other && other.session() == this) {
+            return;
+        }
+        latestOtherChange = event.describe();
+        otherChanges.incrementAndGet();
+    }
+
+    private void printOtherChanges() {
+        int changes = otherChanges.getAndSet(0);
+        int missed = events.takeDropped();
+        if (missed > 0) {
+            out.println("\n" + (changes + missed) + " change(s) made elsewhere since the last menu.");
+        } else if (changes > 0) {
+            out.println("\n" + changes + " change(s) made elsewhere since the last menu. Latest: " + latestOtherChange);
         }
     }
 
+    private void shutdown() {
+        out.println("Goodbye, " + name + "!");
+        events.cancel();
+        workspace.release();
+    }
+
     private CompletableFuture<Void> inputNameAsync() {
         return CompletableFuture.runAsync(() -> {
             while (true) {
-                System.out.print("Please enter your name: ");
+                out.print("Please enter your name: ");
                 lock.lock();
                 try {
-                    String name = br.readLine();
+                    String name = readLine();
                     TaskValidator.validateName(name);
                     this.name = name;
                     break;
-                } catch (IOException e) {
-                    System.out.println(INPUT_ERROR_MESSAGE);
                 } catch (IllegalArgumentException e) {
-                    System.out.println(e.getMessage());
+                    out.println(e.getMessage());
                 } finally {
                     lock.unlock();
                 }
             }
-        });
+        }, inputExecutor);
     }
 
     private void printWelcomeMessage() {
@@ -102,49 +247,155 @@ public class AsyncTaskManager {
                 .append("2. Add a task\n")
                 .append("3. Modify tasks\n")
                 .append("4. Remove a task\n")
+                .append("5. View stats\n")
+                .append("6. Search tasks\n")
+                .append("7. Bulk operations\n")
+                .append("8. View next tasks\n")
                 .append("0. Exit");
-        System.out.println(sb);
+        out.println(sb);
     }
 
     private CompletableFuture<Byte> inputChoiceAsync() {
+        return inputChoiceAsync(SUB_MENU_CHOICES);
+    }
+
+    private CompletableFuture<Byte> inputChoiceAsync(int maxChoice) {
         return CompletableFuture.supplyAsync(() -> {
             while (true) {
-                System.out.print("Enter the number: ");
+                out.print("Enter the number: ");
                 lock.lock();
                 try {
-                    String choice = br.readLine();
-                    TaskValidator.validateChoice(choice);
+                    String choice = readLine();
+                    TaskValidator.validateChoice(choice, maxChoice);
                     return Byte.parseByte(choice);
                 } catch (IllegalArgumentException e) {
-                    System.out.println(e.getMessage());
-                } catch (IOException e) {
-                    System.out.println(INPUT_ERROR_MESSAGE);
+                    out.println(e.getMessage());
                 } finally {
                     lock.unlock();
                 }
             }
-        });
+        }, inputExecutor);
     }
 
     private boolean taskLoop(byte choice) {
         boolean isContinue = true;
         switch (choice) {
             case 1 -> viewTasks();
-            case 2 -> addTaskAsync();
-            case 3 -> modifyTasksAsync();
-            case 4 -> removeTaskAsync();
+            case 2 -> {
+                awaitTasks();
+                addTaskAsync();
+            }
+            case 3 -> {
+                awaitTasks();
+                modifyTasksAsync();
+            }
+            case 4 -> {
+                awaitTasks();
+                removeTaskAsync();
+            }
+            case 5 -> viewStats();
+            case 6 -> {
+                awaitTasks();
+                searchTasks();
+            }
+            case 7 -> {
+                awaitTasks();
+                bulkOperations();
+            }
+            case 8 -> {
+                awaitTasks();
+                viewNextTasks();
+            }
             case 0 -> isContinue = false;
         }
         return isContinue;
     }
 
-    private void viewTasks() {
-        if (tasks.isEmpty()) {
-            System.out.println("There are no tasks to view.");
+    private void viewStats() {
+        out.print(TaskMetrics.report());
+        out.println("Dropped log lines for " + name + ": " + taskLogger.getDroppedCount());
+        out.println("Scheduled deadlines: " + TaskDeadlines.pending());
+    }
+
+    private void searchTasks() {
+        String query = inputSearchQueryAsync().join();
+        List<SearchIndex.Hit> hits = workspace.getSearchIndex().search(query, SEARCH_LIMIT);
+        TaskStore.Snapshot snapshot = store.snapshot();
+        int[] indexes = hits.stream().mapToInt(hit -> snapshot.indexOf(hit.id())).filter(index -> index >= 0).toArray();
+        if (indexes.length == 0) {
+            out.println("There are no tasks matching \"" + query + "\".");
             return;
         }
+        out.println("Search results...");
+        browseTasks(snapshot, indexes);
+    }
+
+    private void viewNextTasks() {
+        long[] ids = workspace.getNextTaskQueue().top(NEXT_LIMIT);
+        TaskStore.Snapshot snapshot = store.snapshot();
+        int[] indexes = Arrays.stream(ids).mapToInt(snapshot::indexOf).filter(index -> index >= 0).toArray();
+        if (indexes.length == 0) {
+            out.println("There are no tasks to do next.");
+            return;
+        }
+        out.println("Next tasks...");
+        browseTasks(snapshot, indexes);
+    }
+
+    private CompletableFuture<String> inputSearchQueryAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            while (true) {
+                out.print("Enter the search query: ");
+                lock.lock();
+                try {
+                    String query = readLine();
+                    TaskValidator.validateSearchQuery(query);
+                    return query;
+                } catch (IllegalArgumentException e) {
+                    out.println(e.getMessage());
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }, inputExecutor);
+    }
+
+    private void viewTasks() {
+        CheckpointView checkpoint = workspace.getCheckpoint();
+        if (checkpoint == null || checkpoint.read(0, 1).isEmpty()) {
+            awaitTasks();
+            checkpoint = null;
+            if (store.snapshot().isEmpty()) {
+                out.println("There are no tasks to view.");
+                return;
+            }
+        }
         printMoreViewMessage();
-        inputChoiceAsync().thenAccept(this::viewTaskLoop).join();
+        byte choice = inputChoiceAsync().join();
+        if (checkpoint != null && choice == 1 && !workspace.isLoaded()) {
+            previewTasks(checkpoint);
+            return;
+        }
+        awaitTasks();
+        viewTaskLoop(choice);
+    }
+
+    private void previewTasks(CheckpointView checkpoint) {
+        out.println("Every tasks as of the last checkpoint (still loading; recent changes are not shown yet)...");
+        int page = 0;
+        while (!workspace.isLoaded()) {
+            boolean more = renderer.printPreview(out, checkpoint, page);
+            if (page == 0 && !more) {
+                return;
+            }
+            int command = inputPageCommandAsync("Enter n for the next page, p for the previous page, or 0 to go back: ", 0).join();
+            if (command == GO_BACK) {
+                return;
+            }
+            page = command == NEXT_PAGE ? (more ? page + 1 : page) : Math.max(page - 1, 0);
+        }
+        out.println("Loading finished.");
+        viewEveryTasks();
     }
 
     private void printMoreViewMessage() {
@@ -155,7 +406,7 @@ public class AsyncTaskManager {
                 .append("3. View urgent tasks\n")
                 .append("4. View completed tasks\n")
                 .append("0. Go back");
-        System.out.println(sb);
+        out.println(sb);
     }
 
     private void viewTaskLoop(byte choice) {
@@ -169,143 +420,164 @@ public class AsyncTaskManager {
     }
 
     private void viewEveryTasks() {
-        System.out.println("Every tasks...");
-        for (int i = 0; i < tasks.size(); i++) {
-            Task task = tasks.get(i);
-            System.out.println(i + 1 + ". " + task.getInfo());
-        }
+        out.println("Every tasks...");
+        browseTasks(store.snapshot(), null);
     }
 
     private void viewPendingTasks() {
-        System.out.println("Pending tasks...");
-        for (int i = 0; i < tasks.size(); i++) {
-            Task task = tasks.get(i);
-            if (!task.isDone()) {
-                System.out.println(i + 1 + ". " + task.getInfo());
-            }
-        }
+        TaskStore.Snapshot snapshot = store.snapshot();
+        out.println("Pending tasks...");
+        browseTasks(snapshot, snapshot.indexesOf(Pending.class, Urgent.class));
     }
 
     private void viewUrgentTasks() {
-        System.out.println("Urgent tasks...");
-        for (int i = 0; i < tasks.size(); i++) {
-            Task task = tasks.get(i);
-            if (task.getState() instanceof Urgent) {
-                System.out.println(i + 1 + ". " + task.getInfo());
+        TaskStore.Snapshot snapshot = store.snapshot();
+        out.println("Urgent tasks...");
+        browseTasks(snapshot, snapshot.indexesOf(Urgent.class));
+    }
+
+    private void viewCompletedTasks() {
+        TaskStore.Snapshot snapshot = store.snapshot();
+        out.println("Completed tasks...");
+        browseTasks(snapshot, snapshot.indexesOf(Completed.class));
+    }
+
+    private void browseTasks(TaskStore.Snapshot snapshot, int[] indexes) {
+        int pages = renderer.pageCount(indexes == null ? snapshot.size() : indexes.length);
+        int page = 0;
+        while (true) {
+            renderer.printPage(out, snapshot, indexes, page, null);
+            if (pages == 1) {
+                return;
             }
+            int command = inputPageCommandAsync("Enter n for the next page, p for the previous page, or 0 to go back: ", 0).join();
+            if (command == GO_BACK) {
+                return;
+            }
+            page = turnPage(page, pages, command);
         }
     }
 
-    private void viewCompletedTasks() {
-        System.out.println("Completed tasks...");
-        for (int i = 0; i < tasks.size(); i++) {
-            Task task = tasks.get(i);
-            if (task.isDone()) {
-                System.out.println(i + 1 + ". " + task.getInfo());
+    private int selectTask(TaskStore.Snapshot snapshot) {
+        int pages = renderer.pageCount(snapshot.size());
+        String footer = pages == 1 ? "0. Go back" : "n. Next page\np. Previous page\n0. Go back";
+        int page = 0;
+        while (true) {
+            renderer.printPage(out, snapshot, null, page, footer);
+            int command = pages == 1
+                    ? inputTaskIndexAsync(snapshot.size()).join()
+                    : inputPageCommandAsync("Enter the number of the task: ", snapshot.size()).join();
+            if (command != NEXT_PAGE && command != PREVIOUS_PAGE) {
+                return command;
             }
+            page = turnPage(page, pages, command);
         }
     }
 
+    private int turnPage(int page, int pages, int command) {
+        return command == NEXT_PAGE ? Math.min(page + 1, pages - 1) : Math.max(page - 1, 0);
+    }
+
+    private CompletableFuture<Integer> inputPageCommandAsync(String prompt, int taskSize) {
+        return CompletableFuture.supplyAsync(() -> {
+            while (true) {
+                out.print(prompt);
+                lock.lock();
+                try {
+                    String command = readLine();
+                    TaskValidator.validatePageCommand(command, taskSize);
+                    return switch (command) {
+                        case "n" -> NEXT_PAGE;
+                        case "p" -> PREVIOUS_PAGE;
+                        default -> Integer.parseInt(command) - 1;
+                    };
+                } catch (IllegalArgumentException e) {
+                    out.println(e.getMessage());
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }, inputExecutor);
+    }
+
     private void addTaskAsync() {
         inputTaskTitleAsync()
                 .thenCompose(title -> inputTaskDescriptionAsync().thenApply(description -> new Task(title, description)))
-                .thenAccept(task -> {
-                    offerTask(task);
-                    AsyncFileManager.appendTaskToFileAsync(name, task);
-                    taskLogger.log("Task added: " + task.getInfo());
-                })
+                .thenAccept(this::offerTask)
                 .join();
     }
 
     private CompletableFuture<String> inputTaskTitleAsync() {
         return CompletableFuture.supplyAsync(() -> {
             while (true) {
-                System.out.print("Enter the title of the task: ");
+                out.print("Enter the title of the task: ");
                 lock.lock();
                 try {
-                    String title = br.readLine();
+                    String title = readLine();
                     TaskValidator.validateTaskTitle(title);
                     return title;
-                } catch (IOException e) {
-                    System.out.println(INPUT_ERROR_MESSAGE);
                 } catch (IllegalArgumentException e) {
-                    System.out.println(e.getMessage());
+                    out.println(e.getMessage());
                 } finally {
                     lock.unlock();
                 }
             }
-        });
+        }, inputExecutor);
     }
 
     private CompletableFuture<String> inputTaskDescriptionAsync() {
         return CompletableFuture.supplyAsync(() -> {
             while (true) {
-                System.out.print("Enter the description of the task: ");
+                out.print("Enter the description of the task: ");
                 lock.lock();
                 try {
-                    String description = br.readLine();
+                    String description = readLine();
                     TaskValidator.validateTaskDescription(description);
                     return description;
-                } catch (IOException e) {
-                    System.out.println(INPUT_ERROR_MESSAGE);
                 } catch (IllegalArgumentException e) {
-                    System.out.println(e.getMessage());
+                    out.println(e.getMessage());
                 } finally {
                     lock.unlock();
                 }
             }
-        });
-    }
-
-    private void printAllTasks() {
-        for (int i = 0; i < tasks.size(); i++) {
-            Task task = tasks.get(i);
-            System.out.println(i + 1 + ". " + task.getInfo());
-        }
+        }, inputExecutor);
     }
 
     private void modifyTasksAsync() {
-        if (tasks.isEmpty()) {
-            System.out.println("There are no tasks to modify.");
+        TaskStore.Snapshot snapshot = store.snapshot();
+        if (snapshot.isEmpty()) {
+            out.println("There are no tasks to modify.");
             return;
         }
-        System.out.println("Which task would you like to modify?");
-        printAllTasks();
-        System.out.println("0. Go back");
-        inputTaskIndexAsync().thenAccept(index -> {
-            if (index == -1) {
-                return;
-            }
-            Task task = tasks.get(index);
-            printMoreModifyMessage();
-            inputChoiceAsync().thenAccept(choice -> {
-                if (choice != 0) {
-                    modifyTaskLoop(task, choice);
-                    AsyncFileManager.updateTasksFileAsync(name, tasks);
-                    taskLogger.log("Task modified: " + task.getInfo());
-                }
-            }).join();
-        }).join();
+        out.println("Which task would you like to modify?");
+        int index = selectTask(snapshot);
+        if (index == GO_BACK) {
+            return;
+        }
+        Task task = snapshot.get(index);
+        printMoreModifyMessage();
+        byte choice = inputChoiceAsync(MODIFY_MENU_CHOICES).join();
+        if (choice != 0) {
+            modifyTaskLoop(task, choice);
+        }
     }
 
-    private CompletableFuture<Integer> inputTaskIndexAsync() {
+    private CompletableFuture<Integer> inputTaskIndexAsync(int taskSize) {
         return CompletableFuture.supplyAsync(() -> {
             while (true) {
-                System.out.print("Enter the number of the task: ");
+                out.print("Enter the number of the task: ");
                 lock.lock();
                 try {
-                    String index = br.readLine();
-                    TaskValidator.validateTaskIndex(index, tasks.size());
+                    String index = readLine();
+                    TaskValidator.validateTaskIndex(index, taskSize);
                     return Integer.parseInt(index) - 1;
-                } catch (IOException e) {
-                    System.out.println(INPUT_ERROR_MESSAGE);
                 } catch (IllegalArgumentException e) {
-                    System.out.println(e.getMessage());
+                    out.println(e.getMessage());
                 } finally {
                     lock.unlock();
                 }
             }
-        });
+        }, inputExecutor);
     }
 
     private void printMoreModifyMessage() {
@@ -315,8 +587,10 @@ public class AsyncTaskManager {
                 .append("2. Change priority\n")
                 .append("3. Change title\n")
                 .append("4. Change description\n")
+                .append("5. Change due date\n")
+                .append("6. Change reminder\n")
                 .append("0. Go back");
-        System.out.println(sb);
+        out.println(sb);
     }
 
     private void modifyTaskLoop(Task task, byte choice) {
@@ -325,48 +599,153 @@ public class AsyncTaskManager {
             case 2 -> changePriority(task);
             case 3 -> changeTitle(task);
             case 4 -> changeDescription(task);
+            case 5 -> changeDueDate(task);
+            case 6 -> changeReminder(task);
             case 0 -> { }
         }
     }
 
+    private void checkModified(Task modified) {
+        if (modified == null) {
+            out.println(TASK_REMOVED_MESSAGE);
+        }
+    }
+
     private void changeDone(Task task) {
-        task.changeDone();
+        checkModified(modifyTask(task, Task::changeDone,
+                modified -> JournalRecord.setState(modified.getId(), modified.getState())));
     }
 
     private void changePriority(Task task) {
         try {
             TaskValidator.validateIsPendingOrUrgent(task);
-            task.changePriority();
+            long now = System.currentTimeMillis();
+            checkModified(modifyTaskRecords(task, modified -> {
+                modified.changePriority();
+                if (!(modified.getState() instanceof Urgent) && modified.getDueAt() != 0 && modified.getDueAt() <= now) {
+                    modified.setDueAt(0);
+                }
+            }, modified -> List.of(JournalRecord.setState(modified.getId(), modified.getState()),
+                    JournalRecord.setDue(modified.getId(), modified.getDueAt(), modified.getRemindAt()))));
         } catch (IllegalArgumentException e) {
-            System.out.println(e.getMessage());
+            out.println(e.getMessage());
         }
     }
 
     private void changeTitle(Task task) {
-        inputTaskTitleAsync().thenAccept(task::setTitle).join();
+        String title = inputTaskTitleAsync().join();
+        checkModified(modifyTask(task, t -> t.setTitle(title),
+                modified -> JournalRecord.setTitle(modified.getId(), modified.getTitle())));
     }
 
     private void changeDescription(Task task) {
-        inputTaskDescriptionAsync().thenAccept(task::setDescription).join();
+        String description = inputTaskDescriptionAsync().join();
+        checkModified(modifyTask(task, t -> t.setDescription(description),
+                modified -> JournalRecord.setDescription(modified.getId(), modified.getDescription())));
+    }
+
+    private void changeDueDate(Task task) {
+        long dueAt = inputTimeAsync("due date").join();
+        checkModified(modifyTask(task, t -> t.setDueAt(dueAt),
+                modified -> JournalRecord.setDue(modified.getId(), modified.getDueAt(), modified.getRemindAt())));
+    }
+
+    private void changeReminder(Task task) {
+        long remindAt = inputTimeAsync("reminder").join();
+        checkModified(modifyTask(task, t -> t.setRemindAt(remindAt),
+                modified -> JournalRecord.setDue(modified.getId(), modified.getDueAt(), modified.getRemindAt())));
+    }
+
+    private CompletableFuture<Long> inputTimeAsync(String label) {
+        return CompletableFuture.supplyAsync(() -> {
+            while (true) {
+                out.print("Enter the " + label + " (yyyy-MM-dd HH:mm, +30m, +2h, +1d or none): ");
+                lock.lock();
+                try {
+                    return DueTime.parse(readLine(), System.currentTimeMillis());
+                } catch (IllegalArgumentException e) {
+                    out.println(e.getMessage());
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }, inputExecutor);
     }
 
     private void removeTaskAsync() {
-        if (tasks.isEmpty()) {
-            System.out.println("There are no tasks to remove.");
+        TaskStore.Snapshot snapshot = store.snapshot();
+        if (snapshot.isEmpty()) {
+            out.println("There are no tasks to remove.");
             return;
         }
-        System.out.println("Which task would you like to remove?");
-        printAllTasks();
-        System.out.println("0. Go back");
-        inputTaskIndexAsync().thenAccept(index -> {
-            if (index == -1) {
-                return;
+        out.println("Which task would you like to remove?");
+        int index = selectTask(snapshot);
+        if (index == GO_BACK) {
+            return;
+        }
+        Task taskToRemove = snapshot.get(index);
+        if (!deleteTask(taskToRemove)) {
+            out.println(TASK_REMOVED_MESSAGE);
+        }
+    }
+
+    private void bulkOperations() {
+        if (store.snapshot().isEmpty()) {
+            out.println("There are no tasks to update.");
+            return;
+        }
+        printMoreBulkMessage();
+        byte choice = inputChoiceAsync(BULK_MENU_CHOICES).join();
+        switch (choice) {
+            case 1 -> applyBulkOperation(new BulkOperation(BulkOperation.Action.COMPLETE, "all", inputMatchTextAsync().join()));
+            case 2 -> applyBulkOperation(new BulkOperation(BulkOperation.Action.REMOVE, "completed", null));
+            case 3 -> applyBulkOperation(new BulkOperation(BulkOperation.Action.URGENT, "all", inputMatchTextAsync().join()));
+            case 0 -> { }
+        }
+    }
+
+    private void printMoreBulkMessage() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("What would you like to do?\n")
+                .append("1. Complete all tasks whose title matches\n")
+                .append("2. Remove all completed tasks\n")
+                .append("3. Mark urgent all tasks whose title matches\n")
+                .append("0. Go back");
+        out.println(sb);
+    }
+
+    private CompletableFuture<String> inputMatchTextAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            while (true) {
+                out.print("Enter the text to match in titles: ");
+                lock.lock();
+                try {
+                    String text = readLine();
+                    TaskValidator.validateMatchText(text);
+                    return text;
+                } catch (IllegalArgumentException e) {
+                    out.println(e.getMessage());
+                } finally {
+                    lock.unlock();
+                }
             }
-            Task taskToRemove = tasks.get(index);
-            deleteTask(taskToRemove);
-            AsyncFileManager.updateTasksFileAsync(name, tasks);
-            taskLogger.log("Task removed: " + taskToRemove.getInfo());
-        }).join();
+        }, inputExecutor);
+    }
+
+    private void applyBulkOperation(BulkOperation operation) {
+        int count = store.update(bulkSource, tasks -> {
+            List<JournalRecord> records = new ArrayList<>();
+            int applied = operation.apply(tasks, records);
+            if (!records.isEmpty()) {
+                reportFailure(AsyncFileManager.updateTasksAsync(name, tasks, records));
+            }
+            return applied;
+        });
+        String message = operation.describe(count);
+        out.println(message);
+        if (count > 0) {
+            taskLogger.log(message);
+        }
     }
 
 }
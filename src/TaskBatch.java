@@ -0,0 +1,86 @@
+import batch.BatchCommand;
+import journal.JournalRecord;
+import validator.TaskValidator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class TaskBatch {
+
+    private static final int CHECKPOINT_COMMANDS = Integer.getInteger("tasks.batch.checkpoint", 0);
+
+    private final String name;
+    private final BufferedReader br;
+    private final PrintStream out;
+
+    public TaskBatch(String name, BufferedReader br, PrintStream out) {
+        this.name = name;
+        this.br = br;
+        this.out = out;
+    }
+
+    public boolean run() throws IOException {
+        TaskValidator.validateName(name);
+        TaskWorkspace workspace = TaskWorkspace.acquire(name, (loadedBytes, totalBytes) -> { });
+        try {
+            workspace.awaitLoaded();
+            List<BatchCommand> commands = new ArrayList<>();
+            List<CompletableFuture<Void>> saves = new ArrayList<>();
+            int lineNumber = 0;
+            int applied = 0;
+            String line;
+            while ((line = br.readLine()) != null) {
+                BatchCommand command = BatchCommand.parse(line, ++lineNumber);
+                if (command == null) {
+                    continue;
+                }
+                commands.add(command);
+                if (CHECKPOINT_COMMANDS > 0 && commands.size() >= CHECKPOINT_COMMANDS) {
+                    applied += commit(workspace, commands, saves);
+                    commands.clear();
+                }
+            }
+            applied += commit(workspace, commands, saves);
+            saves.add(AsyncFileManager.flushAsync(name));
+            CompletableFuture.allOf(saves.toArray(new CompletableFuture<?>[0])).join();
+            out.println(applied + " command(s) applied to " + name + ".");
+            return true;
+        } catch (IllegalArgumentException e) {
+            out.println(e.getMessage());
+            return false;
+        } catch (CompletionException e) {
+            out.println(e.getCause().getMessage());
+            return false;
+        } finally {
+            workspace.release();
+        }
+    }
+
+    private int commit(TaskWorkspace workspace, List<BatchCommand> commands, List<CompletableFuture<Void>> saves) {
+        if (commands.isEmpty()) {
+            return 0;
+        }
+        List<String> messages = new ArrayList<>();
+        workspace.getStore().update(tasks -> {
+            List<JournalRecord> records = new ArrayList<>();
+            for (BatchCommand command : commands) {
+                String message = command.apply(tasks, records, out);
+                if (message != null) {
+                    messages.add(message);
+                }
+            }
+            if (!records.isEmpty()) {
+                saves.add(AsyncFileManager.updateTasksAsync(name, tasks, records));
+            }
+            return null;
+        });
+        messages.forEach(workspace.getTaskLogger()::log);
+        return commands.size();
+    }
+
+}
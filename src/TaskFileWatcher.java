@@ -1,11 +1,21 @@
-import task.Task;
+import metrics.TaskMetrics;
+
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.nio.file.WatchEvent;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
@@ -14,47 +24,154 @@ import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
 
 public class TaskFileWatcher implements Runnable {
 
-    private final String name;
-    private final List<Task> tasks;
-    private final Path tasksDir;
+    private static final long DEBOUNCE_MILLIS = Long.getLong("tasks.watcher.debounceMillis", 50);
+
+    private static final Map<Path, TaskFileWatcher> watchers = new HashMap<>();
+
+    private final Path directory;
+    private final Map<String, List<Subscription>> subscriptions;
+    private Thread thread;
 
-    public TaskFileWatcher(String name, List<Task> tasks) {
-        this.name = name;
-        this.tasks = tasks;
-        this.tasksDir = Paths.get(AsyncFileManager.getTasksDirectory());
+    public interface Listener {
+        CompletableFuture<?> changed();
     }
 
-    @Override
-    public void run() {
-        try (WatchService watcher = tasksDir.getFileSystem().newWatchService()) {
-            tasksDir.register(watcher, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
-            while (!Thread.currentThread().isInterrupted()) {
-                WatchKey key = watcher.take();
-                for (WatchEvent<?> events : key.pollEvents()) {
-                    WatchEvent.Kind<?> kind = events.kind();
+    public static final class Subscription implements AutoCloseable {
+        private final TaskFileWatcher watcher;
+        private final String name;
+        private final Listener listener;
+        private final AtomicInteger signals;
 
-                    if (kind == OVERFLOW) continue;
+        private Subscription(TaskFileWatcher watcher, String name, Listener listener) {
+            this.watcher = watcher;
+            this.name = name;
+            this.listener = listener;
+            this.signals = new AtomicInteger();
+        }
 
-                    WatchEvent<Path> event = (WatchEvent<Path>) events;
-                    Path fileName = event.context();
+        private void signal() {
+            if (signals.getAndIncrement() == 0) {
+                dispatch();
+            }
+        }
 
-                    if (fileName.toString().equals(name + ".txt")) {
-                        AsyncFileManager.loadTasksAsync(name, tasks)
-                                .exceptionally(e -> {
-                                    throw new RuntimeException("Failed to load tasks: " + e.getMessage());
-                                })
-                                .join();
-                    }
+        private void dispatch() {
+            int seen = signals.get();
+            TaskMetrics.WATCH_DISPATCH_COUNT.increment();
+            CompletableFuture<?> changed;
+            try {
+                changed = listener.changed();
+            } catch (RuntimeException e) {
+                changed = CompletableFuture.failedFuture(e);
+            }
+            changed.whenComplete((result, e) -> {
+                if (e != null) {
+                    e.printStackTrace();
                 }
+                if (signals.addAndGet(-seen) > 0) {
+                    dispatch();
+                }
+            });
+        }
+
+        @Override
+        public void close() {
+            watcher.unsubscribe(this);
+        }
+    }
+
+    private TaskFileWatcher(Path directory) {
+        this.directory = directory;
+        this.subscriptions = new ConcurrentHashMap<>();
+    }
+
+    public static Subscription subscribe(String name, Listener listener) {
+        Path directory = Paths.get(AsyncFileManager.getTasksDirectory()).toAbsolutePath().normalize();
+        synchronized (watchers) {
+            TaskFileWatcher watcher = watchers.computeIfAbsent(directory, TaskFileWatcher::new);
+            Subscription subscription = new Subscription(watcher, name, listener);
+            watcher.subscriptions.computeIfAbsent(name, key -> new CopyOnWriteArrayList<>()).add(subscription);
+            if (watcher.thread == null) {
+                watcher.thread = Thread.ofVirtual().name("task-watcher-" + directory.getFileName()).start(watcher);
+            }
+            return subscription;
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        synchronized (watchers) {
+            List<Subscription> named = subscriptions.get(subscription.name);
+            if (named == null || !named.remove(subscription)) {
+                return;
+            }
+            if (named.isEmpty()) {
+                subscriptions.remove(subscription.name);
+            }
+            if (subscriptions.isEmpty()) {
+                watchers.remove(directory, this);
+                thread.interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try (WatchService watcher = directory.getFileSystem().newWatchService()) {
+            directory.register(watcher, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watcher.take();
+                TaskMetrics.WATCH_WAKEUP_COUNT.increment();
+                Set<String> changed = new HashSet<>();
+                boolean overflow = pollChanges(key, changed);
                 if (!key.reset()) {
                     break;
                 }
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DEBOUNCE_MILLIS);
+                long remaining;
+                while ((remaining = deadline - System.nanoTime()) > 0
+                        && (key = watcher.poll(remaining, TimeUnit.NANOSECONDS)) != null) {
+                    overflow |= pollChanges(key, changed);
+                    key.reset();
+                }
+                for (Map.Entry<String, List<Subscription>> named : subscriptions.entrySet()) {
+                    if (overflow || changed.contains(named.getKey())) {
+                        named.getValue().forEach(Subscription::signal);
+                    }
+                }
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         } catch (IOException e) {
             throw new RuntimeException("Error watching tasks directory: " + e.getMessage());
+        } finally {
+            synchronized (watchers) {
+                watchers.remove(directory, this);
+            }
+        }
+    }
+
+    private boolean pollChanges(WatchKey key, Set<String> changed) {
+        boolean overflow = false;
+        for (WatchEvent<?> events : key.pollEvents()) {
+            WatchEvent.Kind<?> kind = events.kind();
+
+            if (kind == OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+
+            WatchEvent<Path> event = (WatchEvent<Path>) events;
+            String fileName = event.context().toString();
+            int extension = fileName.lastIndexOf('.');
+
+            if (extension > 0) {
+                String name = fileName.substring(0, extension);
+                if (subscriptions.containsKey(name) && AsyncFileManager.isTasksFile(name, fileName)) {
+                    changed.add(name);
+                }
+            }
         }
+        return overflow;
     }
 
 }
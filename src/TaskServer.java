@@ -0,0 +1,136 @@
+import executor.TaskExecutors;
+import jdk.net.ExtendedSocketOptions;
+import jdk.net.UnixDomainPrincipal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TaskServer {
+
+    public static final String DEFAULT_ADDRESS = "unix:" + System.getProperty("server.socket", "tasks.sock");
+
+    private static final String UNIX_PREFIX = "unix:";
+    private static final int BACKLOG = Integer.getInteger("server.backlog", 1024);
+    private static final String TOKEN = System.getProperty("server.token", "");
+    private static final int MAX_SESSIONS = Integer.getInteger("server.maxSessions", 1024);
+
+    private final SocketAddress address;
+    private final AtomicInteger sessions;
+
+    public TaskServer(String address) {
+        this.address = parseAddress(address);
+        this.sessions = new AtomicInteger();
+    }
+
+    private static SocketAddress parseAddress(String address) {
+        if (address.startsWith(UNIX_PREFIX)) {
+            return UnixDomainSocketAddress.of(address.substring(UNIX_PREFIX.length()));
+        }
+        if (TOKEN.isEmpty()) {
+            throw new IllegalArgumentException("TCP sessions require -Dserver.token; use a unix: address for local access");
+        }
+        try {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid server address: " + address);
+        }
+    }
+
+    public void serve() throws IOException {
+        boolean unix = address instanceof UnixDomainSocketAddress;
+        if (unix) {
+            Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+        }
+        try (ServerSocketChannel server = unix
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open()) {
+            server.bind(address, BACKLOG);
+            UserPrincipal owner = null;
+            if (unix) {
+                Path path = ((UnixDomainSocketAddress) address).getPath();
+                Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+                owner = Files.getOwner(path);
+            }
+            System.out.println("Serving task sessions on " + server.getLocalAddress());
+            while (server.isOpen()) {
+                SocketChannel channel = server.accept();
+                if (owner != null && !isOwner(channel, owner)) {
+                    channel.close();
+                    continue;
+                }
+                if (sessions.incrementAndGet() > MAX_SESSIONS) {
+                    sessions.decrementAndGet();
+                    reject(channel);
+                    continue;
+                }
+                TaskExecutors.session().execute(() -> runSession(channel));
+            }
+        } finally {
+            if (unix) {
+                Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+            }
+        }
+    }
+
+    private void runSession(SocketChannel channel) {
+        try (channel) {
+            BufferedReader br = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            PrintStream out = new PrintStream(Channels.newOutputStream(channel), true, StandardCharsets.UTF_8);
+            if (!unixSession() && !authenticate(br.readLine())) {
+                out.println("Unauthorized.");
+                return;
+            }
+            new AsyncTaskManager(br, out, TaskExecutors.session()).start();
+        } catch (IOException | CompletionException e) {
+            System.out.println("Session closed: " + e.getMessage());
+        } finally {
+            sessions.decrementAndGet();
+        }
+    }
+
+    private static void reject(SocketChannel channel) {
+        try (channel) {
+            new PrintStream(Channels.newOutputStream(channel), true, StandardCharsets.UTF_8)
+                    .println("Too many sessions. Try again later.");
+        } catch (IOException e) {
+            System.out.println("Session rejected: " + e.getMessage());
+        }
+    }
+
+    private boolean unixSession() {
+        return address instanceof UnixDomainSocketAddress;
+    }
+
+    private static boolean isOwner(SocketChannel channel, UserPrincipal owner) {
+        try {
+            UnixDomainPrincipal peer = channel.getOption(ExtendedSocketOptions.SO_PEERCRED);
+            return peer.user().equals(owner);
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    private static boolean authenticate(String token) {
+        return token != null && MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), TOKEN.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,256 @@
+import event.TaskEvent;
+import event.TaskEventBus;
+import executor.TaskExecutors;
+import format.CheckpointView;
+import format.ChunkedTextLoader;
+import journal.JournalRecord;
+import logger.TaskLogger;
+import priority.NextTaskQueue;
+import render.TaskRenderer;
+import search.SearchIndex;
+import store.TaskStore;
+import task.Task;
+import task.state.TaskState;
+import timer.TaskDeadlines;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class TaskWorkspace {
+
+    private static final long CHECKPOINT_MILLIS = Long.getLong("tasks.checkpoint.intervalMillis", 30_000);
+
+    private static final Map<String, TaskWorkspace> workspaces = new HashMap<>();
+
+    private final String name;
+    private final TaskStore store;
+    private final TaskLogger taskLogger;
+    private SearchIndex searchIndex;
+    private NextTaskQueue nextTaskQueue;
+    private TaskRenderer renderer;
+    private volatile TaskDeadlines deadlines;
+    private final TaskEventBus events;
+    private final TaskStore.ChangeListener auditLog;
+    private CompletableFuture<Void> ready;
+    private CompletableFuture<Void> loaded;
+    private volatile CheckpointView checkpoint;
+    private volatile TaskFileWatcher.Subscription fileWatch;
+    private volatile ScheduledFuture<?> checkpoints;
+    private CompletableFuture<Void> closed;
+    private int sessions;
+
+    private TaskWorkspace(String name) {
+        this.name = name;
+        this.store = new TaskStore();
+        this.taskLogger = new TaskLogger(name);
+        this.events = new TaskEventBus(store);
+        this.auditLog = (previous, current) -> {
+            if (store.origin() instanceof TaskEvent.Source source && source.logged()) {
+                TaskEvent event = TaskEvent.of(store.version(), source, previous, current);
+                if (event != null) {
+                    taskLogger.log(event.describe());
+                }
+            }
+        };
+    }
+
+    public static TaskWorkspace acquire(String name, ChunkedTextLoader.Progress progress) {
+        TaskWorkspace workspace;
+        while (true) {
+            CompletableFuture<Void> closing;
+            synchronized (workspaces) {
+                workspace = workspaces.computeIfAbsent(name, TaskWorkspace::new);
+                if (workspace.closed == null) {
+                    if (workspace.sessions++ == 0) {
+                        workspace.open(progress);
+                    }
+                    break;
+                }
+                closing = workspace.closed;
+            }
+            closing.join();
+        }
+        try {
+            workspace.ready.join();
+        } catch (RuntimeException e) {
+            workspace.release();
+            throw e;
+        }
+        return workspace;
+    }
+
+    private void open(ChunkedTextLoader.Progress progress) {
+        taskLogger.start();
+        CompletableFuture<Void> mapped = new CompletableFuture<>();
+        Consumer<CheckpointView> onMapped = view -> {
+            checkpoint = view;
+            mapped.complete(null);
+        };
+        loaded = AsyncFileManager.nameFileExistsAsync(name).thenCompose(isExist -> {
+            if (isExist) {
+                return AsyncFileManager.loadTasksAsync(name, store, progress, onMapped);
+            } else {
+                return AsyncFileManager.createTasksFileAsync(name)
+                        .thenCompose(created -> AsyncFileManager.loadTasksAsync(name, store, progress, onMapped));
+            }
+        }).thenRun(() -> {
+            fileWatch = TaskFileWatcher.subscribe(name, () -> AsyncFileManager.refreshTasksAsync(name, store));
+            deadlines = new TaskDeadlines(this::expired);
+            store.subscribe(deadlines);
+            store.subscribe(auditLog, false);
+            store.subscribe(events, false);
+            if (AsyncFileManager.isJournalEnabled() && CHECKPOINT_MILLIS > 0) {
+                checkpoints = TaskExecutors.scheduleAtFixedRate(() -> AsyncFileManager.checkpointAsync(name),
+                        CHECKPOINT_MILLIS, CHECKPOINT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        });
+        loaded.whenComplete((result, e) -> {
+            checkpoint = null;
+            if (e != null) {
+                mapped.completeExceptionally(e);
+            } else {
+                mapped.complete(null);
+            }
+        });
+        ready = mapped;
+    }
+
+    public boolean isLoaded() {
+        return loaded.isDone();
+    }
+
+    public CheckpointView getCheckpoint() {
+        return isLoaded() ? null : checkpoint;
+    }
+
+    public void awaitLoaded() {
+        loaded.join();
+    }
+
+    public void release() {
+        synchronized (workspaces) {
+            if (--sessions > 0) {
+                return;
+            }
+            closed = new CompletableFuture<>();
+        }
+        try {
+            loaded.handle((result, e) -> null).join();
+            if (checkpoints != null) {
+                checkpoints.cancel(false);
+            }
+            if (deadlines != null) {
+                store.unsubscribe(deadlines);
+                deadlines.close();
+                AsyncFileManager.releaseLease(name);
+            }
+            store.unsubscribe(auditLog);
+            store.unsubscribe(events);
+            events.close();
+            if (fileWatch != null) {
+                fileWatch.close();
+            }
+            AsyncFileManager.flushAsync(name).join();
+            taskLogger.stop();
+        } finally {
+            synchronized (workspaces) {
+                workspaces.remove(name, this);
+            }
+            closed.complete(null);
+        }
+    }
+
+    private void expired(List<Long> due, List<Long> reminders, long now) {
+        if (!AsyncFileManager.acquireLease(name)) {
+            store.inspect(published -> {
+                for (long id : due) {
+                    if (TaskDeadlines.escalates(published.find(id), now)) {
+                        deadlines.retry(id, false, now);
+                    }
+                }
+                for (long id : reminders) {
+                    if (TaskDeadlines.reminds(published.find(id), now)) {
+                        deadlines.retry(id, true, now);
+                    }
+                }
+                return null;
+            });
+            return;
+        }
+        List<String> messages = new ArrayList<>();
+        store.update(tasks -> {
+            List<JournalRecord> records = new ArrayList<>();
+            for (long id : due) {
+                Task task = tasks.find(id);
+                if (TaskDeadlines.escalates(task, now)) {
+                    Task modified = new Task(task);
+                    modified.setState(TaskState.URGENT);
+                    tasks.replace(modified);
+                    records.add(JournalRecord.setState(id, TaskState.URGENT));
+                    messages.add("Task overdue: " + modified.getInfo());
+                }
+            }
+            for (long id : reminders) {
+                Task task = tasks.find(id);
+                if (TaskDeadlines.reminds(task, now)) {
+                    Task modified = new Task(task);
+                    modified.setRemindAt(0);
+                    tasks.replace(modified);
+                    records.add(JournalRecord.setDue(id, modified.getDueAt(), 0));
+                    if (!task.isDone()) {
+                        messages.add("Reminder: " + modified.getInfo());
+                    }
+                }
+            }
+            if (!records.isEmpty()) {
+                AsyncFileManager.updateTasksAsync(name, tasks, records);
+            }
+            return null;
+        });
+        messages.forEach(taskLogger::log);
+    }
+
+    public TaskStore getStore() {
+        return store;
+    }
+
+    public TaskEventBus getEvents() {
+        return events;
+    }
+
+    public TaskLogger getTaskLogger() {
+        return taskLogger;
+    }
+
+    public synchronized SearchIndex getSearchIndex() {
+        if (searchIndex == null) {
+            searchIndex = new SearchIndex();
+            store.subscribe(searchIndex);
+        }
+        return searchIndex;
+    }
+
+    public synchronized NextTaskQueue getNextTaskQueue() {
+        if (nextTaskQueue == null) {
+            nextTaskQueue = new NextTaskQueue();
+            store.subscribe(nextTaskQueue);
+        }
+        return nextTaskQueue;
+    }
+
+    public synchronized TaskRenderer getRenderer() {
+        if (renderer == null) {
+            TaskRenderer created = new TaskRenderer();
+            loaded.thenRun(() -> store.subscribe(created));
+            renderer = created;
+        }
+        return renderer;
+    }
+
+}
@@ -0,0 +1,261 @@
+package batch;
+
+import journal.JournalRecord;
+import priority.NextTaskQueue;
+import store.IndexedTaskList;
+import task.DueTime;
+import task.Task;
+import task.state.TaskState;
+import task.state.Urgent;
+import validator.TaskValidator;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchCommand {
+
+    public enum Type {
+        ADD, DONE, URGENT, RM, DUE, REMIND, LIST, NEXT
+    }
+
+    private static final String OPTION_PREFIX = "--";
+    private static final String STATE_OPTION = "--state=";
+    private static final String TITLE_OPTION = "--title=";
+    private static final String ALL_OPTION = "--all";
+    private static final String ID_PREFIX = "#";
+    private static final int NEXT_LIMIT = 10;
+
+    private final Type type;
+    private final List<String> arguments;
+    private final int lineNumber;
+
+    private BatchCommand(Type type, List<String> arguments, int lineNumber) {
+        this.type = type;
+        this.arguments = arguments;
+        this.lineNumber = lineNumber;
+    }
+
+    public static BatchCommand parse(String line, int lineNumber) {
+        if (line.strip().startsWith("#")) {
+            return null;
+        }
+        List<String> tokens = tokenize(line, lineNumber);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        Type type;
+        try {
+            type = Type.valueOf(tokens.get(0).toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw error(lineNumber, "Unknown command: " + tokens.get(0));
+        }
+        List<String> arguments = tokens.subList(1, tokens.size());
+        int expected = switch (type) {
+            case ADD, DUE, REMIND -> 2;
+            case DONE, URGENT, RM -> isBulk(arguments) ? Math.min(arguments.size(), 2) : 1;
+            case LIST, NEXT -> arguments.isEmpty() ? 0 : 1;
+        };
+        if (arguments.size() != expected) {
+            throw error(lineNumber, "Wrong number of arguments for " + tokens.get(0));
+        }
+        return new BatchCommand(type, List.copyOf(arguments), lineNumber);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public String apply(IndexedTaskList tasks, List<JournalRecord> records, PrintStream out) {
+        try {
+            return switch (type) {
+                case ADD -> add(tasks, records);
+                case DONE -> isBulk(arguments) ? bulk(tasks, records, BulkOperation.Action.COMPLETE) : done(tasks, records);
+                case URGENT -> isBulk(arguments) ? bulk(tasks, records, BulkOperation.Action.URGENT) : urgent(tasks, records);
+                case RM -> isBulk(arguments) ? bulk(tasks, records, BulkOperation.Action.REMOVE) : remove(tasks, records);
+                case DUE -> due(tasks, records, false);
+                case REMIND -> due(tasks, records, true);
+                case LIST -> list(tasks, out);
+                case NEXT -> next(tasks, out);
+            };
+        } catch (IllegalArgumentException e) {
+            throw error(lineNumber, e.getMessage());
+        }
+    }
+
+    private String add(IndexedTaskList tasks, List<JournalRecord> records) {
+        TaskValidator.validateTaskTitle(arguments.get(0));
+        TaskValidator.validateTaskDescription(arguments.get(1));
+        Task task = new Task(arguments.get(0), arguments.get(1));
+        tasks.add(task);
+        records.add(JournalRecord.add(task));
+        return "Task added: " + task.getInfo();
+    }
+
+    private String done(IndexedTaskList tasks, List<JournalRecord> records) {
+        Task task = target(tasks);
+        if (task.isDone()) {
+            return null;
+        }
+        return modify(tasks, records, task, TaskState.COMPLETED);
+    }
+
+    private String urgent(IndexedTaskList tasks, List<JournalRecord> records) {
+        Task task = target(tasks);
+        TaskValidator.validateIsPendingOrUrgent(task);
+        if (task.getState() instanceof Urgent) {
+            return null;
+        }
+        return modify(tasks, records, task, TaskState.URGENT);
+    }
+
+    private String modify(IndexedTaskList tasks, List<JournalRecord> records, Task task, TaskState state) {
+        Task modified = new Task(task);
+        modified.setState(state);
+        tasks.replace(modified);
+        records.add(JournalRecord.setState(modified.getId(), state));
+        return "Task modified: " + modified.getInfo();
+    }
+
+    private String due(IndexedTaskList tasks, List<JournalRecord> records, boolean reminder) {
+        Task task = target(tasks);
+        long time = DueTime.parse(arguments.get(1), System.currentTimeMillis());
+        Task modified = new Task(task);
+        if (reminder) {
+            modified.setRemindAt(time);
+        } else {
+            modified.setDueAt(time);
+        }
+        tasks.replace(modified);
+        records.add(JournalRecord.setDue(modified.getId(), modified.getDueAt(), modified.getRemindAt()));
+        return "Task modified: " + modified.getInfo();
+    }
+
+    private String remove(IndexedTaskList tasks, List<JournalRecord> records) {
+        Task removed = tasks.removeById(target(tasks).getId());
+        records.add(JournalRecord.delete(removed.getId()));
+        return "Task removed: " + removed.getInfo();
+    }
+
+    private String bulk(IndexedTaskList tasks, List<JournalRecord> records, BulkOperation.Action action) {
+        String state = "all";
+        String title = null;
+        for (String argument : arguments) {
+            if (argument.startsWith(STATE_OPTION)) {
+                state = argument.substring(STATE_OPTION.length()).toLowerCase();
+            } else if (argument.startsWith(TITLE_OPTION)) {
+                title = argument.substring(TITLE_OPTION.length());
+                TaskValidator.validateMatchText(title);
+            } else if (!argument.equals(ALL_OPTION)) {
+                throw new IllegalArgumentException("Unknown option: " + argument);
+            }
+        }
+        BulkOperation operation = new BulkOperation(action, state, title);
+        int count = operation.apply(tasks, records);
+        return count == 0 ? null : operation.describe(count);
+    }
+
+    private static boolean isBulk(List<String> arguments) {
+        return !arguments.isEmpty() && arguments.get(0).startsWith(OPTION_PREFIX);
+    }
+
+    private String list(IndexedTaskList tasks, PrintStream out) {
+        String state = arguments.isEmpty() ? STATE_OPTION + "all" : arguments.get(0);
+        if (!state.startsWith(STATE_OPTION)) {
+            throw new IllegalArgumentException("Unknown option: " + state);
+        }
+        state = state.substring(STATE_OPTION.length()).toLowerCase();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (BulkOperation.matchesState(state, task)) {
+                out.println(i + 1 + ". [" + ID_PREFIX + task.getId() + "] " + task.getInfo());
+            }
+        }
+        return null;
+    }
+
+    private String next(IndexedTaskList tasks, PrintStream out) {
+        int limit = arguments.isEmpty() ? NEXT_LIMIT : parseLimit(arguments.get(0));
+        NextTaskQueue queue = new NextTaskQueue();
+        tasks.forEach(task -> queue.changed(null, task));
+        for (long id : queue.top(limit)) {
+            Task task = tasks.find(id);
+            out.println(tasks.indexOf(task) + 1 + ". [" + ID_PREFIX + id + "] " + task.getInfo());
+        }
+        return null;
+    }
+
+    private static int parseLimit(String limit) {
+        try {
+            int value = Integer.parseInt(limit);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below together with non-positive limits
+        }
+        throw new IllegalArgumentException("Invalid limit: " + limit);
+    }
+
+    private Task target(IndexedTaskList tasks) {
+        String reference = arguments.get(0);
+        try {
+            if (reference.startsWith(ID_PREFIX)) {
+                Task task = tasks.find(Long.parseLong(reference.substring(ID_PREFIX.length())));
+                if (task != null) {
+                    return task;
+                }
+            } else {
+                int index = Integer.parseInt(reference) - 1;
+                if (index >= 0 && index < tasks.size()) {
+                    return tasks.get(index);
+                }
+            }
+        } catch (NumberFormatException e) {
+            // Reported below together with unknown tasks
+        }
+        throw new IllegalArgumentException("No such task: " + reference);
+    }
+
+    private static List<String> tokenize(String line, int lineNumber) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean quoted = false;
+        boolean inToken = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                token.append(line.charAt(++i));
+                inToken = true;
+            } else if (c == '"') {
+                quoted = !quoted;
+                inToken = true;
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (inToken) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                token.append(c);
+                inToken = true;
+            }
+        }
+        if (quoted) {
+            throw error(lineNumber, "Unterminated quote");
+        }
+        if (inToken) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private static IllegalArgumentException error(int lineNumber, String message) {
+        return new IllegalArgumentException("Line " + lineNumber + ": " + message);
+    }
+
+}
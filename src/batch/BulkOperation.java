@@ -0,0 +1,93 @@
+package batch;
+
+import journal.JournalRecord;
+import store.IndexedTaskList;
+import task.Task;
+import task.state.Pending;
+import task.state.TaskState;
+import task.state.Urgent;
+
+import java.util.List;
+import java.util.Locale;
+
+public class BulkOperation {
+
+    public enum Action {
+        COMPLETE, URGENT, REMOVE
+    }
+
+    private static final int PARALLEL_THRESHOLD = Integer.getInteger("tasks.bulk.parallelThreshold", 50_000);
+    private static final List<String> STATES = List.of("all", "pending", "urgent", "completed");
+
+    private final Action action;
+    private final String state;
+    private final String match;
+
+    public BulkOperation(Action action, String state, String match) {
+        if (!STATES.contains(state)) {
+            throw new IllegalArgumentException("Unknown state: " + state);
+        }
+        this.action = action;
+        this.state = state;
+        this.match = match == null ? null : match.toLowerCase(Locale.ROOT);
+    }
+
+    public int apply(IndexedTaskList tasks, List<JournalRecord> records) {
+        long[] ids = tasks.idsMatching(this::matches, tasks.size() >= PARALLEL_THRESHOLD);
+        if (action == Action.REMOVE) {
+            tasks.removeAll(ids);
+            for (long id : ids) {
+                records.add(JournalRecord.delete(id));
+            }
+            return ids.length;
+        }
+        for (long id : ids) {
+            modify(tasks, records, id, action == Action.COMPLETE ? TaskState.COMPLETED : TaskState.URGENT);
+        }
+        return ids.length;
+    }
+
+    public String describe(int count) {
+        String verb = switch (action) {
+            case COMPLETE -> "completed";
+            case URGENT -> "marked urgent";
+            case REMOVE -> "removed";
+        };
+        StringBuilder sb = new StringBuilder("Bulk update: ").append(count).append(" task(s) ").append(verb);
+        if (!state.equals("all")) {
+            sb.append(", state: ").append(state);
+        }
+        if (match != null) {
+            sb.append(", title contains \"").append(match).append('"');
+        }
+        return sb.toString();
+    }
+
+    static boolean matchesState(String state, Task task) {
+        return switch (state) {
+            case "all" -> true;
+            case "pending" -> task.getState() instanceof Pending || task.getState() instanceof Urgent;
+            case "urgent" -> task.getState() instanceof Urgent;
+            case "completed" -> task.isDone();
+            default -> throw new IllegalArgumentException("Unknown state: " + state);
+        };
+    }
+
+    private boolean matches(Task task) {
+        boolean applicable = switch (action) {
+            case COMPLETE -> !task.isDone();
+            case URGENT -> !task.isDone() && !(task.getState() instanceof Urgent);
+            case REMOVE -> true;
+        };
+        return applicable && matchesState(state, task)
+                && (match == null || task.getTitle().toLowerCase(Locale.ROOT).contains(match));
+    }
+
+    private void modify(IndexedTaskList tasks, List<JournalRecord> records, long id, TaskState state) {
+        Task modified = new Task(tasks.find(id));
+        modified.setState(state);
+        tasks.replace(modified);
+        records.add(JournalRecord.setState(id, state));
+    }
+
+}
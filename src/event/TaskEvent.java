@@ -0,0 +1,59 @@
+package event;
+
+import task.Task;
+
+public sealed interface TaskEvent {
+
+    long version();
+
+    Object origin();
+
+    Task task();
+
+    String describe();
+
+    record Source(Object session, boolean logged) {
+    }
+
+    record TaskAdded(long version, Object origin, Task task) implements TaskEvent {
+        @Override
+        public String describe() {
+            return "Task added: " + task.getInfo();
+        }
+    }
+
+    record TaskStateChanged(long version, Object origin, Task previous, Task task) implements TaskEvent {
+        @Override
+        public String describe() {
+            return "Task modified: " + task.getInfo();
+        }
+    }
+
+    record TaskModified(long version, Object origin, Task previous, Task task) implements TaskEvent {
+        @Override
+        public String describe() {
+            return "Task modified: " + task.getInfo();
+        }
+    }
+
+    record TaskRemoved(long version, Object origin, Task task) implements TaskEvent {
+        @Override
+        public String describe() {
+            return "Task removed: " + task.getInfo();
+        }
+    }
+
+    static TaskEvent of(long version, Object origin, Task previous, Task current) {
+        if (previous == null) {
+            return current == null ? null : new TaskAdded(version, origin, current);
+        }
+        if (current == null) {
+            return new TaskRemoved(version, origin, previous);
+        }
+        if (previous.getState().getClass() != current.getState().getClass()) {
+            return new TaskStateChanged(version, origin, previous, current);
+        }
+        return new TaskModified(version, origin, previous, current);
+    }
+
+}
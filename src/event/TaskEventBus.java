@@ -0,0 +1,123 @@
+package event;
+
+import executor.TaskExecutors;
+import metrics.TaskMetrics;
+import store.TaskStore;
+import task.Task;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Best-effort change notices for sessions, such as the "changes made elsewhere" line in the menu.
+ * Events are offered without blocking the store and are dropped when a subscriber's buffer is full.
+ * Persistence, the audit log, the search and state indexes and deadlines are direct
+ * {@link TaskStore} listeners and never go through this bus. The {@code events.published} and
+ * {@code events.dropped} counters therefore cover these notices only, not lost writes or log lines.
+ */
+public class TaskEventBus implements TaskStore.ChangeListener, AutoCloseable {
+
+    private static final int BUFFER_SIZE = Math.max(2, Integer.getInteger("tasks.events.bufferSize", Flow.defaultBufferSize()));
+
+    private final TaskStore store;
+    private final SubmissionPublisher<TaskEvent> publisher;
+
+    public static final class Subscriber implements Flow.Subscriber<TaskEvent> {
+        private final Consumer<TaskEvent> consumer;
+        private final CompletableFuture<Void> done;
+        private final AtomicInteger dropped;
+        private Flow.Subscription subscription;
+        private boolean cancelled;
+        private int consumed;
+
+        private Subscriber(Consumer<TaskEvent> consumer) {
+            this.consumer = consumer;
+            this.done = new CompletableFuture<>();
+            this.dropped = new AtomicInteger();
+        }
+
+        @Override
+        public synchronized void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+                return;
+            }
+            subscription.request(BUFFER_SIZE);
+        }
+
+        @Override
+        public void onNext(TaskEvent event) {
+            consumer.accept(event);
+            if (++consumed == BUFFER_SIZE / 2) {
+                subscription.request(consumed);
+                consumed = 0;
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            done.complete(null);
+        }
+
+        public synchronized void cancel() {
+            cancelled = true;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            done.complete(null);
+        }
+
+        public CompletableFuture<Void> done() {
+            return done;
+        }
+
+        /**
+         * Returns how many notices this subscriber missed since the last call, and resets the count.
+         */
+        public int takeDropped() {
+            return dropped.getAndSet(0);
+        }
+    }
+
+    public TaskEventBus(TaskStore store) {
+        this.store = store;
+        this.publisher = new SubmissionPublisher<>(TaskExecutors.events(), BUFFER_SIZE);
+    }
+
+    public Subscriber subscribe(Consumer<TaskEvent> consumer) {
+        Subscriber subscriber = new Subscriber(consumer);
+        publisher.subscribe(subscriber);
+        return subscriber;
+    }
+
+    @Override
+    public void changed(Task previous, Task current) {
+        TaskEvent event = TaskEvent.of(store.version(), store.origin(), previous, current);
+        if (event == null || publisher.isClosed()) {
+            return;
+        }
+        TaskMetrics.EVENTS_PUBLISHED.increment();
+        publisher.offer(event, (subscriber, dropped) -> {
+            TaskMetrics.EVENTS_DROPPED.increment();
+            if (subscriber instanceof Subscriber notified) {
+                notified.dropped.incrementAndGet();
+            }
+            return false;
+        });
+    }
+
+    @Override
+    public void close() {
+        publisher.close();
+    }
+
+}
@@ -0,0 +1,16 @@
+package executor;
+
+public enum ExecutionMode {
+    VIRTUAL, PLATFORM;
+
+    public static ExecutionMode of(String name, ExecutionMode defaultMode) {
+        if (name == null) {
+            return defaultMode;
+        }
+        try {
+            return valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return defaultMode;
+        }
+    }
+}
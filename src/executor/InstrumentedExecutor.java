@@ -0,0 +1,100 @@
+package executor;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class InstrumentedExecutor extends AbstractExecutorService {
+
+    private final String name;
+    private final ExecutionMode mode;
+    private final ExecutorService delegate;
+    private final AtomicInteger queued;
+    private final AtomicInteger active;
+    private final AtomicLong completed;
+
+    public InstrumentedExecutor(String name, ExecutionMode mode, ExecutorService delegate) {
+        this.name = name;
+        this.mode = mode;
+        this.delegate = delegate;
+        this.queued = new AtomicInteger();
+        this.active = new AtomicInteger();
+        this.completed = new AtomicLong();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        queued.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    command.run();
+                } finally {
+                    active.decrementAndGet();
+                    completed.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            throw e;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ExecutionMode getMode() {
+        return mode;
+    }
+
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + mode.name().toLowerCase() + "): queued=" + getQueueDepth()
+                + ", active=" + getActiveCount() + ", completed=" + getCompletedCount();
+    }
+
+}
@@ -0,0 +1,82 @@
+package executor;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TaskExecutors {
+
+    private static final InstrumentedExecutor CONSOLE =
+            create("console", ExecutionMode.VIRTUAL, 4);
+    private static final InstrumentedExecutor DISK =
+            create("disk", ExecutionMode.PLATFORM, Math.max(2, Runtime.getRuntime().availableProcessors()));
+    private static final InstrumentedExecutor MAINTENANCE =
+            create("maintenance", ExecutionMode.PLATFORM, 1);
+    private static final InstrumentedExecutor EVENTS =
+            create("events", ExecutionMode.VIRTUAL, 2);
+    private static final InstrumentedExecutor SESSION = new InstrumentedExecutor("session", ExecutionMode.VIRTUAL,
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-session-", 1).factory()));
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("task-timer").daemon().factory());
+
+    private static InstrumentedExecutor create(String name, ExecutionMode defaultMode, int defaultThreads) {
+        ExecutionMode mode = ExecutionMode.of(System.getProperty("executor." + name + ".mode"), defaultMode);
+        int threads = Math.max(1, Integer.getInteger("executor." + name + ".threads", defaultThreads));
+        ExecutorService delegate = switch (mode) {
+            case VIRTUAL -> Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("task-" + name + "-", 1).factory());
+            case PLATFORM -> Executors.newFixedThreadPool(threads,
+                    Thread.ofPlatform().name("task-" + name + "-", 1).daemon().factory());
+        };
+        return new InstrumentedExecutor(name, mode, delegate);
+    }
+
+    public static InstrumentedExecutor console() {
+        return CONSOLE;
+    }
+
+    public static InstrumentedExecutor disk() {
+        return DISK;
+    }
+
+    public static InstrumentedExecutor maintenance() {
+        return MAINTENANCE;
+    }
+
+    public static InstrumentedExecutor events() {
+        return EVENTS;
+    }
+
+    public static InstrumentedExecutor session() {
+        return SESSION;
+    }
+
+    public static List<InstrumentedExecutor> all() {
+        return List.of(CONSOLE, DISK, MAINTENANCE, EVENTS, SESSION);
+    }
+
+    public static ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return TIMER.schedule(() -> MAINTENANCE.execute(task), delay, unit);
+    }
+
+    public static ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        AtomicBoolean queued = new AtomicBoolean();
+        return TIMER.scheduleAtFixedRate(() -> {
+            if (!queued.compareAndSet(false, true)) {
+                return;
+            }
+            MAINTENANCE.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    queued.set(false);
+                }
+            });
+        }, initialDelay, period, unit);
+    }
+
+}
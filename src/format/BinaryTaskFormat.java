@@ -0,0 +1,116 @@
+package format;
+
+import task.Task;
+import task.state.TaskState;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class BinaryTaskFormat {
+
+    private static final byte[] MAGIC = {'T', 'A', 'S', 'K'};
+    private static final byte LEGACY_VERSION = 1;
+    private static final byte VERSION = 2;
+    private static final int HEADER_SIZE = MAGIC.length + 1;
+    private static final int FIELD_LENGTH_SIZE = Integer.BYTES;
+    private static final int TIMED_FLAG = 0x40;
+    private static final int STATE_MASK = 0x3F;
+    private static final int TIMING_SIZE = Long.BYTES * 2;
+
+    public static byte[] header() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+        buffer.put(MAGIC).put(VERSION);
+        return buffer.array();
+    }
+
+    public static boolean isLegacy(ByteBuffer buffer) {
+        return buffer.remaining() >= HEADER_SIZE && buffer.get(buffer.position() + MAGIC.length) == LEGACY_VERSION;
+    }
+
+    public static byte[] encode(Task task) {
+        byte[] title = task.getTitle().getBytes(StandardCharsets.UTF_8);
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        int timing = task.isTimed() ? TIMING_SIZE : 0;
+        ByteBuffer buffer = ByteBuffer.allocate(1 + Long.BYTES + FIELD_LENGTH_SIZE * 2 + title.length + description.length + timing);
+        buffer.put((byte) (task.getState().getCode() | (timing > 0 ? TIMED_FLAG : 0)))
+                .putLong(task.getId())
+                .putInt(title.length).put(title)
+                .putInt(description.length).put(description);
+        if (timing > 0) {
+            buffer.putLong(task.getDueAt()).putLong(task.getRemindAt());
+        }
+        return buffer.array();
+    }
+
+    public static byte[] encode(List<Task> tasks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(header());
+        for (Task task : tasks) {
+            out.writeBytes(encode(task));
+        }
+        return out.toByteArray();
+    }
+
+    public static void decode(ByteBuffer buffer, List<Task> tasks) {
+        int idSize = readHeader(buffer);
+        Task task;
+        while ((task = decodeNext(buffer, idSize)) != null) {
+            tasks.add(task);
+        }
+    }
+
+    public static int readHeader(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE) {
+            return -1;
+        }
+        for (byte magic : MAGIC) {
+            if (buffer.get() != magic) {
+                throw new IllegalArgumentException("Not a binary task file");
+            }
+        }
+        byte version = buffer.get();
+        if (version != VERSION && version != LEGACY_VERSION) {
+            throw new IllegalArgumentException("Unsupported binary task file version: " + version);
+        }
+        return version == LEGACY_VERSION ? 0 : Long.BYTES;
+    }
+
+    public static Task decodeNext(ByteBuffer buffer, int idSize) {
+        if (idSize < 0 || buffer.remaining() < 1 + idSize + FIELD_LENGTH_SIZE * 2) {
+            return null;
+        }
+        int start = buffer.position();
+        byte state = buffer.get();
+        long id = idSize == 0 ? 0 : buffer.getLong();
+        String title = readField(buffer);
+        String description = title == null ? null : readField(buffer);
+        boolean timed = idSize > 0 && (state & TIMED_FLAG) != 0;
+        if (description == null || (timed && buffer.remaining() < TIMING_SIZE)) {
+            buffer.position(start);
+            return null;
+        }
+        Task task = new Task(id, title, description);
+        task.setState(TaskState.of((byte) (state & STATE_MASK)));
+        if (timed) {
+            task.setDueAt(buffer.getLong());
+            task.setRemindAt(buffer.getLong());
+        }
+        return task;
+    }
+
+    private static String readField(ByteBuffer buffer) {
+        if (buffer.remaining() < FIELD_LENGTH_SIZE) {
+            return null;
+        }
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,80 @@
+package format;
+
+import task.Task;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CheckpointView {
+
+    private static final int TEXT = -2;
+
+    private final ByteBuffer buffer;
+    private final List<Task> decoded;
+    private int idSize;
+    private boolean complete;
+
+    private CheckpointView(ByteBuffer buffer, int idSize) {
+        this.buffer = buffer;
+        this.decoded = new ArrayList<>();
+        this.idSize = idSize;
+    }
+
+    public static CheckpointView binary(ByteBuffer buffer) {
+        return new CheckpointView(buffer, -1);
+    }
+
+    public static CheckpointView text(ByteBuffer buffer) {
+        return new CheckpointView(buffer, TEXT);
+    }
+
+    public synchronized List<Task> read(int from, int count) {
+        while (decoded.size() < from + count && !complete) {
+            Task task = next();
+            if (task != null) {
+                decoded.add(task);
+            }
+        }
+        int start = Math.min(from, decoded.size());
+        return List.copyOf(decoded.subList(start, Math.min(from + count, decoded.size())));
+    }
+
+    private Task next() {
+        if (idSize == TEXT) {
+            return nextLine();
+        }
+        if (idSize < 0) {
+            try {
+                idSize = BinaryTaskFormat.readHeader(buffer);
+            } catch (IllegalArgumentException e) {
+                complete = true;
+                return null;
+            }
+        }
+        Task task = BinaryTaskFormat.decodeNext(buffer, idSize);
+        complete = task == null;
+        return task;
+    }
+
+    private Task nextLine() {
+        if (!buffer.hasRemaining()) {
+            complete = true;
+            return null;
+        }
+        int start = buffer.position();
+        int end = start;
+        while (end < buffer.limit() && buffer.get(end) != '\n') {
+            end++;
+        }
+        buffer.position(Math.min(end + 1, buffer.limit()));
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        byte[] line = new byte[end - start];
+        buffer.get(start, line);
+        return TextTaskFormat.parse(new String(line, StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,107 @@
+package format;
+
+import task.Task;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ChunkedTextLoader {
+
+    private static final int PROBE_SIZE = 4096;
+
+    private final int chunkBytes;
+    private final ForkJoinPool pool;
+    private final Charset charset;
+
+    public interface Progress {
+        void update(long loadedBytes, long totalBytes);
+    }
+
+    private record Chunk(long start, long end) {
+    }
+
+    public ChunkedTextLoader(int chunkBytes, ForkJoinPool pool, Charset charset) {
+        this.chunkBytes = chunkBytes;
+        this.pool = pool;
+        this.charset = charset;
+    }
+
+    public List<Task> load(Path path, Progress progress) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            AtomicLong loaded = new AtomicLong();
+            List<ForkJoinTask<List<Task>>> parts = new ArrayList<>();
+            for (Chunk chunk : split(channel, size)) {
+                parts.add(pool.submit(() -> {
+                    List<Task> tasks = parseChunk(channel, chunk);
+                    progress.update(loaded.addAndGet(chunk.end() - chunk.start()), size);
+                    return tasks;
+                }));
+            }
+            List<Task> tasks = new ArrayList<>();
+            for (ForkJoinTask<List<Task>> part : parts) {
+                tasks.addAll(part.join());
+            }
+            return tasks;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private List<Chunk> split(FileChannel channel, long size) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+        long start = 0;
+        while (start < size) {
+            long end = nextLineStart(channel, Math.min(size, start + chunkBytes), size, probe);
+            chunks.add(new Chunk(start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    private long nextLineStart(FileChannel channel, long position, long size, ByteBuffer probe) throws IOException {
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                return size;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private List<Task> parseChunk(FileChannel channel, Chunk chunk) {
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start(), chunk.end() - chunk.start());
+            List<Task> tasks = new ArrayList<>();
+            charset.decode(buffer).toString().lines().forEach(line -> {
+                Task task = TextTaskFormat.parse(line);
+                if (task != null) {
+                    tasks.add(task);
+                }
+            });
+            return tasks;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package format;
+
+import task.DueTime;
+import task.Task;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class CsvTaskFormat {
+
+    private static final String HEADER = "id,title,description,state,due,reminder";
+
+    public static byte[] encode(List<Task> tasks) {
+        StringBuilder sb = new StringBuilder(HEADER).append("\r\n");
+        for (Task task : tasks) {
+            sb.append(task.getId()).append(',');
+            appendField(task.getTitle(), sb);
+            sb.append(',');
+            appendField(task.getDescription(), sb);
+            sb.append(',').append(task.getState().getClass().getSimpleName());
+            sb.append(',').append(task.getDueAt() == 0 ? "" : DueTime.format(task.getDueAt()));
+            sb.append(',').append(task.getRemindAt() == 0 ? "" : DueTime.format(task.getRemindAt())).append("\r\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendField(String value, StringBuilder sb) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            sb.append(value);
+            return;
+        }
+        sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+}
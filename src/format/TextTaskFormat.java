@@ -0,0 +1,103 @@
+package format;
+
+import task.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TextTaskFormat {
+
+    private static final char SEPARATOR = ',';
+    private static final char ESCAPE = '\\';
+
+    public static String encode(Task task) {
+        StringBuilder sb = new StringBuilder().append(task.getId()).append(SEPARATOR);
+        escape(task.getTitle(), sb);
+        sb.append(SEPARATOR);
+        escape(task.getDescription(), sb);
+        sb.append(SEPARATOR).append(task.getState().getClass().getSimpleName());
+        if (task.isTimed()) {
+            sb.append(SEPARATOR).append(task.getDueAt()).append(SEPARATOR).append(task.getRemindAt());
+        }
+        return sb.toString();
+    }
+
+    public static Task parse(String line) {
+        String[] taskData = split(line);
+        if (taskData.length != 3 && taskData.length != 4 && taskData.length != 6) {
+            return null;
+        }
+        int field = taskData.length == 3 ? 0 : 1;
+        long id = 0;
+        long dueAt = 0;
+        long remindAt = 0;
+        if (field == 1) {
+            try {
+                id = Long.parseLong(taskData[0]);
+                if (taskData.length == 6) {
+                    dueAt = Long.parseLong(taskData[4]);
+                    remindAt = Long.parseLong(taskData[5]);
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        Task task = new Task(id, taskData[field], taskData[field + 1]);
+        if (taskData[field + 2].equals("Completed")) {
+            task.changeDone();
+        } else if (taskData[field + 2].equals("Urgent")) {
+            task.changePriority();
+        }
+        task.setDueAt(dueAt);
+        task.setRemindAt(remindAt);
+        return task;
+    }
+
+    private static void escape(String value, StringBuilder sb) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case ESCAPE -> sb.append(ESCAPE).append(ESCAPE);
+                case SEPARATOR -> sb.append(ESCAPE).append(SEPARATOR);
+                case '\n' -> sb.append(ESCAPE).append('n');
+                case '\r' -> sb.append(ESCAPE).append('r');
+                default -> sb.append(c);
+            }
+        }
+    }
+
+    private static String[] split(String line) {
+        if (line.indexOf(ESCAPE) < 0) {
+            return line.split(String.valueOf(SEPARATOR));
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == ESCAPE && i + 1 < line.length()) {
+                char next = line.charAt(i + 1);
+                switch (next) {
+                    case ESCAPE, SEPARATOR -> field.append(next);
+                    case 'n' -> field.append('\n');
+                    case 'r' -> field.append('\r');
+                    default -> {
+                        field.append(c);
+                        continue;
+                    }
+                }
+                i++;
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        while (!fields.isEmpty() && fields.get(fields.size() - 1).isEmpty()) {
+            fields.remove(fields.size() - 1);
+        }
+        return fields.toArray(new String[0]);
+    }
+
+}
@@ -0,0 +1,220 @@
+package journal;
+
+import metrics.TaskMetrics;
+import store.IndexedTaskList;
+import task.Task;
+import task.state.TaskState;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+public class JournalRecord {
+
+    public enum Type {
+        ADD, STATE, TITLE, DESCRIPTION, DELETE, CHECKPOINT, DUE
+    }
+
+    private static final char SEPARATOR = '\t';
+    private static final char ID_PREFIX = '#';
+    private static final char CHECKSUM_PREFIX = '~';
+
+    private final Type type;
+    private final long id;
+    private final int index;
+    private final String[] values;
+
+    private JournalRecord(Type type, long id, int index, String... values) {
+        this.type = type;
+        this.id = id;
+        this.index = index;
+        this.values = values;
+    }
+
+    public static JournalRecord add(Task task) {
+        return new JournalRecord(Type.ADD, task.getId(), -1,
+                task.getTitle(), task.getDescription(), task.getState().getClass().getSimpleName());
+    }
+
+    public static JournalRecord setState(long id, TaskState state) {
+        return new JournalRecord(Type.STATE, id, -1, state.getClass().getSimpleName());
+    }
+
+    public static JournalRecord setTitle(long id, String title) {
+        return new JournalRecord(Type.TITLE, id, -1, title);
+    }
+
+    public static JournalRecord setDescription(long id, String description) {
+        return new JournalRecord(Type.DESCRIPTION, id, -1, description);
+    }
+
+    public static JournalRecord setDue(long id, long dueAt, long remindAt) {
+        return new JournalRecord(Type.DUE, id, -1, Long.toString(dueAt), Long.toString(remindAt));
+    }
+
+    public static JournalRecord delete(long id) {
+        return new JournalRecord(Type.DELETE, id, -1);
+    }
+
+    public static JournalRecord checkpoint(long checkpoint) {
+        return new JournalRecord(Type.CHECKPOINT, checkpoint, -1);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String encode() {
+        StringBuilder sb = new StringBuilder(type.name());
+        sb.append(SEPARATOR).append(ID_PREFIX).append(id);
+        for (String value : values) {
+            sb.append(SEPARATOR);
+            escape(value, sb);
+        }
+        long checksum = checksum(sb.toString());
+        return sb.append(SEPARATOR).append(CHECKSUM_PREFIX).append(Long.toHexString(checksum)).toString();
+    }
+
+    public static JournalRecord decode(String line) {
+        String[] fields = line.split(String.valueOf(SEPARATOR), -1);
+        try {
+            Type type = Type.valueOf(fields[0]);
+            if (fields.length < 2 || fields[1].isEmpty() || fields[1].charAt(0) != ID_PREFIX) {
+                return decodeLegacy(type, fields);
+            }
+            long id = Long.parseLong(fields[1].substring(1));
+            if (fields.length > arity(type) && !isIntact(line, fields[fields.length - 1])) {
+                TaskMetrics.TORN_RECORD_COUNT.increment();
+                return null;
+            }
+            return switch (type) {
+                case ADD -> new JournalRecord(type, id, -1, unescape(fields[2]), unescape(fields[3]), fields[4]);
+                case DELETE, CHECKPOINT -> new JournalRecord(type, id, -1);
+                case DUE -> setDue(id, Long.parseLong(fields[2]), Long.parseLong(fields[3]));
+                default -> new JournalRecord(type, id, -1, unescape(fields[2]));
+            };
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static int arity(Type type) {
+        return switch (type) {
+            case ADD -> 5;
+            case DUE -> 4;
+            case DELETE, CHECKPOINT -> 2;
+            default -> 3;
+        };
+    }
+
+    private static boolean isIntact(String line, String checksum) {
+        if (checksum.isEmpty() || checksum.charAt(0) != CHECKSUM_PREFIX) {
+            return false;
+        }
+        String body = line.substring(0, line.length() - checksum.length() - 1);
+        return Long.parseLong(checksum.substring(1), 16) == checksum(body);
+    }
+
+    private static long checksum(String body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static JournalRecord decodeLegacy(Type type, String[] fields) {
+        return switch (type) {
+            case ADD -> new JournalRecord(type, 0, -1, unescape(fields[1]), unescape(fields[2]), fields[3]);
+            case DELETE -> new JournalRecord(type, 0, Integer.parseInt(fields[1]));
+            default -> new JournalRecord(type, 0, Integer.parseInt(fields[1]), unescape(fields[2]));
+        };
+    }
+
+    public Task task() {
+        if (type != Type.ADD) {
+            return null;
+        }
+        Task task = new Task(id, values[0], values[1]);
+        task.setState(TaskState.of(values[2]));
+        return task;
+    }
+
+    public void apply(IndexedTaskList tasks) {
+        if (type == Type.CHECKPOINT) {
+            return;
+        }
+        if (type == Type.ADD) {
+            Task task = task();
+            if (id <= 0 || tasks.replace(task) == null) {
+                tasks.add(task);
+            }
+            return;
+        }
+        Task task = target(tasks);
+        if (task == null) {
+            return;
+        }
+        switch (type) {
+            case STATE -> modify(tasks, task, t -> t.setState(TaskState.of(values[0])));
+            case TITLE -> modify(tasks, task, t -> t.setTitle(values[0]));
+            case DESCRIPTION -> modify(tasks, task, t -> t.setDescription(values[0]));
+            case DUE -> modify(tasks, task, t -> {
+                t.setDueAt(Long.parseLong(values[0]));
+                t.setRemindAt(Long.parseLong(values[1]));
+            });
+            case DELETE -> tasks.removeById(task.getId());
+        }
+    }
+
+    private Task target(IndexedTaskList tasks) {
+        if (index < 0) {
+            return tasks.find(id);
+        }
+        return index < tasks.size() ? tasks.get(index) : null;
+    }
+
+    private void modify(IndexedTaskList tasks, Task task, Consumer<Task> change) {
+        Task modified = new Task(task);
+        change.accept(modified);
+        tasks.replace(modified);
+    }
+
+    private static void escape(String value, StringBuilder sb) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '\t' -> sb.append("\\t");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                default -> sb.append(c);
+            }
+        }
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                switch (next) {
+                    case 't' -> sb.append('\t');
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    default -> sb.append(next);
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,235 @@
+package logger;
+
+import metrics.TaskMetrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AsyncLogWriter {
+
+    private static final int BATCH_SIZE = 256;
+    private static final long POLL_MILLIS = 100;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Path path;
+    private final ArrayBlockingQueue<LogEntry> buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final DateTimeFormatter dtf;
+    private final AtomicLong dropped;
+    private final AtomicLong overflowed;
+    private FileChannel channel;
+    private Object channelKey;
+    private volatile LogRotator rotator;
+    private Thread writerThread;
+    private volatile boolean running;
+    private volatile boolean closed;
+    private long reportedDropped;
+    private long cachedSecond;
+    private String cachedTimestamp;
+
+    private record LogEntry(long timestamp, String message) {
+    }
+
+    public AsyncLogWriter(Path path, int capacity, OverflowPolicy overflowPolicy, int sampleRate, DateTimeFormatter dtf) {
+        this.path = path;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.dtf = dtf;
+        this.dropped = new AtomicLong();
+        this.overflowed = new AtomicLong();
+        this.cachedSecond = Long.MIN_VALUE;
+    }
+
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        try {
+            open();
+        } catch (IOException e) {
+            closed = true;
+            throw e;
+        }
+        running = true;
+        writerThread = Thread.ofVirtual().name("task-logger").start(this::run);
+    }
+
+    public void enableRotation(LogRotator rotator) {
+        this.rotator = rotator;
+        rotator.recover();
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        channelKey = attributes.fileKey();
+    }
+
+    private void reopen() throws IOException {
+        channel.close();
+        open();
+    }
+
+    private boolean isCurrentFile() throws IOException {
+        try {
+            return channelKey != null
+                    && Objects.equals(channelKey, Files.readAttributes(path, BasicFileAttributes.class).fileKey());
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private void prepareChannel(long now) throws IOException {
+        LogRotator current = rotator;
+        if (current != null && current.shouldRotate(channel.size(), current.segmentStart(now), now)) {
+            channel.close();
+            current.rotate(path, now);
+            open();
+        } else if (!isCurrentFile()) {
+            reopen();
+        }
+    }
+
+    public void write(String message) {
+        if (closed) {
+            drop();
+            return;
+        }
+        LogEntry entry = new LogEntry(System.currentTimeMillis(), message);
+        switch (overflowPolicy) {
+            case BLOCK -> put(entry);
+            case DROP -> {
+                if (!buffer.offer(entry)) {
+                    drop();
+                }
+            }
+            case SAMPLE -> {
+                if (!buffer.offer(entry)) {
+                    if (overflowed.incrementAndGet() % sampleRate == 0) {
+                        put(entry);
+                    } else {
+                        drop();
+                    }
+                }
+            }
+        }
+    }
+
+    private void put(LogEntry entry) {
+        try {
+            buffer.put(entry);
+        } catch (InterruptedException e) {
+            drop();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drop() {
+        dropped.incrementAndGet();
+        TaskMetrics.LOG_LINES_DROPPED.increment();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getQueuedCount() {
+        return buffer.size();
+    }
+
+    private void run() {
+        List<LogEntry> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder sb = new StringBuilder();
+        while (running || !buffer.isEmpty()) {
+            try {
+                LogEntry first = buffer.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                running = false;
+                continue;
+            }
+            buffer.drainTo(batch, BATCH_SIZE - 1);
+            appendDroppedNotice(batch.get(0).timestamp(), sb);
+            for (LogEntry entry : batch) {
+                sb.append(timestamp(entry.timestamp())).append(" - ").append(entry.message()).append(LINE_SEPARATOR);
+            }
+            long started = TaskMetrics.LOG_WRITE.start();
+            writeBatch(sb);
+            TaskMetrics.LOG_WRITE.stop(started);
+            TaskMetrics.LOG_LINES_WRITTEN.add(batch.size());
+            batch.clear();
+            sb.setLength(0);
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void appendDroppedNotice(long timestamp, StringBuilder sb) {
+        long total = dropped.get();
+        if (total != reportedDropped) {
+            sb.append(timestamp(timestamp)).append(" - ").append(total - reportedDropped)
+                    .append(" log messages dropped").append(LINE_SEPARATOR);
+            reportedDropped = total;
+        }
+    }
+
+    private void writeBatch(StringBuilder sb) {
+        ByteBuffer data = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            prepareChannel(System.currentTimeMillis());
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private String timestamp(long millis) {
+        long second = Math.floorDiv(millis, 1000);
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedTimestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()).format(dtf);
+        }
+        return cachedTimestamp;
+    }
+
+    public synchronized void stop() {
+        closed = true;
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
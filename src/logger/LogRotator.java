@@ -0,0 +1,199 @@
+package logger;
+
+import executor.TaskExecutors;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+public class LogRotator {
+
+    private static final DateTimeFormatter SEGMENT_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final long ARCHIVE_DELAY_MILLIS = 5000;
+    private static final String ACTIVE_ENTRY = "active";
+
+    private final Path directory;
+    private final String name;
+    private final long maxBytes;
+    private final long maxAgeMillis;
+    private final int maxSegments;
+    private final long maxArchiveBytes;
+    private final Pattern segmentPattern;
+    private final Object archiving;
+    private long segmentStart;
+
+    public LogRotator(Path directory, String name, long maxBytes, long maxAgeMillis, int maxSegments, long maxArchiveBytes) {
+        this.directory = directory;
+        this.name = name;
+        this.maxBytes = maxBytes;
+        this.maxAgeMillis = maxAgeMillis;
+        this.maxSegments = maxSegments;
+        this.maxArchiveBytes = maxArchiveBytes;
+        this.segmentPattern = Pattern.compile(Pattern.quote(name) + "\\.\\d{8}-\\d{6}-\\d{3}\\.txt(\\.gz)?");
+        this.archiving = new Object();
+    }
+
+    public boolean shouldRotate(long size, long segmentStartMillis, long now) {
+        return size > 0 && (size >= maxBytes || now - segmentStartMillis >= maxAgeMillis);
+    }
+
+    public synchronized long segmentStart(long now) {
+        if (segmentStart == 0) {
+            segmentStart = readSegmentStart();
+            if (segmentStart == 0) {
+                segmentStart = now;
+                writeManifest();
+            }
+        }
+        return segmentStart;
+    }
+
+    private long readSegmentStart() {
+        try {
+            for (String line : Files.readAllLines(manifestPath(), StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t");
+                if (fields.length == 2 && fields[0].equals(ACTIVE_ENTRY)) {
+                    return Long.parseLong(fields[1]);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // A missing or unreadable manifest starts a fresh segment
+        }
+        return 0;
+    }
+
+    public void recover() {
+        TaskExecutors.disk().execute(() -> {
+            synchronized (archiving) {
+                for (Path segment : segments()) {
+                    if (!segment.getFileName().toString().endsWith(".gz")) {
+                        compress(segment);
+                    }
+                }
+            }
+            retain();
+        });
+    }
+
+    public void rotate(Path active, long now) throws IOException {
+        Path segment = directory.resolve(name + "." + LocalDateTime.now().format(SEGMENT_FORMAT) + ".txt");
+        Files.move(active, segment, StandardCopyOption.ATOMIC_MOVE);
+        synchronized (this) {
+            segmentStart = now;
+            writeManifest();
+        }
+        TaskExecutors.schedule(() -> TaskExecutors.disk().execute(() -> {
+            synchronized (archiving) {
+                if (Files.exists(segment)) {
+                    compress(segment);
+                }
+            }
+            retain();
+        }), ARCHIVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void retain() {
+        enforceRetention();
+        writeManifest();
+    }
+
+    private void compress(Path segment) {
+        Path archive = segment.resolveSibling(segment.getFileName() + ".gz");
+        Path temp = segment.resolveSibling(segment.getFileName() + ".gz.tmp");
+        try (InputStream in = Files.newInputStream(segment);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        try {
+            Files.move(temp, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(segment);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> segmentPattern.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing(file -> file.getFileName().toString()))
+                    .toList();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    private void enforceRetention() {
+        List<Path> segments = new ArrayList<>(segments());
+        long total = 0;
+        for (Path segment : segments) {
+            total += sizeOf(segment);
+        }
+        while (!segments.isEmpty() && (segments.size() > maxSegments || total > maxArchiveBytes)) {
+            Path oldest = segments.remove(0);
+            total -= sizeOf(oldest);
+            try {
+                Files.deleteIfExists(oldest);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void writeManifest() {
+        if (segmentStart == 0) {
+            segmentStart = readSegmentStart();
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Path segment : segments()) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(segment, BasicFileAttributes.class);
+                sb.append(segment.getFileName()).append('\t')
+                        .append(attributes.size()).append('\t')
+                        .append(attributes.lastModifiedTime()).append('\n');
+            } catch (IOException e) {
+                // The segment was removed while the manifest was being written
+            }
+        }
+        if (segmentStart != 0) {
+            sb.append(ACTIVE_ENTRY).append('\t').append(segmentStart).append('\n');
+        }
+        Path manifest = manifestPath();
+        Path temp = directory.resolve(name + ".manifest.tmp");
+        try {
+            Files.writeString(temp, sb, StandardCharsets.UTF_8);
+            Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private Path manifestPath() {
+        return directory.resolve(name + ".manifest");
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+}
@@ -0,0 +1,13 @@
+package logger;
+
+public enum OverflowPolicy {
+    BLOCK, DROP, SAMPLE;
+
+    public static OverflowPolicy of(String name) {
+        try {
+            return valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return BLOCK;
+        }
+    }
+}
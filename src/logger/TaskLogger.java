@@ -1,35 +1,42 @@
 package logger;
 
-import java.io.BufferedWriter;
+import executor.TaskExecutors;
+
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.io.RandomAccessFile;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 public class TaskLogger {
 
     private static final String LOGS_DIRECTORY = "logs";
+    private static final int BUFFER_CAPACITY = Integer.getInteger("logger.bufferCapacity", 8192);
+    private static final OverflowPolicy OVERFLOW_POLICY = OverflowPolicy.of(System.getProperty("logger.overflow", "BLOCK"));
+    private static final int SAMPLE_RATE = Integer.getInteger("logger.sampleRate", 10);
+    private static final long ROTATE_BYTES = Long.getLong("logger.rotateBytes", 10L * 1024 * 1024);
+    private static final long ROTATE_MILLIS = Long.getLong("logger.rotateMillis", TimeUnit.DAYS.toMillis(1));
+    private static final int MAX_SEGMENTS = Integer.getInteger("logger.maxSegments", 10);
+    private static final long MAX_ARCHIVE_BYTES = Long.getLong("logger.maxArchiveBytes", 100L * 1024 * 1024);
 
-    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> heartbeat;
     private FileChannel lockChannel;
     private FileLock fileLock;
     private final String name;
     private final String logFileName;
     private final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private final AsyncLogWriter writer;
 
     public TaskLogger(String name) {
         this.logFileName = LOGS_DIRECTORY + "/" + name + ".txt";
         this.name = name;
         ensureLogsDirectoryExists();
+        this.writer = new AsyncLogWriter(Paths.get(logFileName), BUFFER_CAPACITY, OVERFLOW_POLICY, SAMPLE_RATE, dtf);
     }
 
     private void ensureLogsDirectoryExists() {
@@ -40,6 +47,11 @@ public class TaskLogger {
     }
 
     public void start() {
+        try {
+            writer.start();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
         try {
             File lockFile = new File(LOGS_DIRECTORY + "/" + name + ".lock");
             lockFile.createNewFile();
@@ -53,36 +65,26 @@ public class TaskLogger {
             e.printStackTrace();
             return;
         }
-        scheduler = Executors.newScheduledThreadPool(1);
-        scheduler.scheduleAtFixedRate(() -> {
+        writer.enableRotation(new LogRotator(Paths.get(LOGS_DIRECTORY), name,
+                ROTATE_BYTES, ROTATE_MILLIS, MAX_SEGMENTS, MAX_ARCHIVE_BYTES));
+        heartbeat = TaskExecutors.scheduleAtFixedRate(() -> {
             log("Current Time: " + LocalDateTime.now().format(dtf));
         }, 0, 1, TimeUnit.SECONDS);
     }
 
     public void log(String message) {
-        CompletableFuture.runAsync(() -> {
-            try (FileWriter fw = new FileWriter(logFileName, true);
-                 BufferedWriter bw = new BufferedWriter(fw);
-                 PrintWriter out = new PrintWriter(bw)) {
-                out.println(LocalDateTime.now().format(dtf) + " - " + message);
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        });
+        writer.write(message);
+    }
+
+    public long getDroppedCount() {
+        return writer.getDroppedCount();
     }
 
     public void stop() {
-        if (scheduler != null) {
-            scheduler.shutdown();
-            try {
-                if (!scheduler.awaitTermination(1, TimeUnit.SECONDS)) {
-                    scheduler.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                scheduler.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
+        if (heartbeat != null) {
+            heartbeat.cancel(false);
         }
+        writer.stop();
         if (fileLock != null) {
             try {
                 fileLock.release();
@@ -0,0 +1,133 @@
+package metrics;
+
+import executor.InstrumentedExecutor;
+import executor.TaskExecutors;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TaskMetrics implements TaskMetricsMXBean {
+
+    private static final String OBJECT_NAME = "taskmanager:type=TaskMetrics";
+
+    public static final LatencyHistogram LOAD = new LatencyHistogram();
+    public static final LatencyHistogram APPEND = new LatencyHistogram();
+    public static final LatencyHistogram REWRITE = new LatencyHistogram();
+    public static final LatencyHistogram FSYNC = new LatencyHistogram();
+    public static final LatencyHistogram RELOAD = new LatencyHistogram();
+    public static final LatencyHistogram LOG_WRITE = new LatencyHistogram();
+    public static final LatencyHistogram SEARCH = new LatencyHistogram();
+    public static final LatencyHistogram COMMIT_LOCK = new LatencyHistogram();
+
+    public static final LongAdder BYTES_WRITTEN = new LongAdder();
+    public static final LongAdder FSYNC_COUNT = new LongAdder();
+    public static final LongAdder RELOAD_COUNT = new LongAdder();
+    public static final LongAdder FULL_RELOAD_COUNT = new LongAdder();
+    public static final LongAdder REBASE_COUNT = new LongAdder();
+    public static final LongAdder CHECKPOINT_COUNT = new LongAdder();
+    public static final LongAdder TORN_RECORD_COUNT = new LongAdder();
+    public static final LongAdder DEADLINE_COUNT = new LongAdder();
+    public static final LongAdder WATCH_WAKEUP_COUNT = new LongAdder();
+    public static final LongAdder WATCH_DISPATCH_COUNT = new LongAdder();
+    public static final LongAdder EVENTS_PUBLISHED = new LongAdder();
+    public static final LongAdder EVENTS_DROPPED = new LongAdder();
+    public static final LongAdder LOG_LINES_WRITTEN = new LongAdder();
+    public static final LongAdder LOG_LINES_DROPPED = new LongAdder();
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new LinkedHashMap<>();
+    private static final Map<String, LongAdder> COUNTERS = new LinkedHashMap<>();
+
+    static {
+        HISTOGRAMS.put("load", LOAD);
+        HISTOGRAMS.put("append", APPEND);
+        HISTOGRAMS.put("rewrite", REWRITE);
+        HISTOGRAMS.put("fsync", FSYNC);
+        HISTOGRAMS.put("reload", RELOAD);
+        HISTOGRAMS.put("log.write", LOG_WRITE);
+        HISTOGRAMS.put("search", SEARCH);
+        HISTOGRAMS.put("commit.lock", COMMIT_LOCK);
+        COUNTERS.put("bytes.written", BYTES_WRITTEN);
+        COUNTERS.put("fsync.count", FSYNC_COUNT);
+        COUNTERS.put("reload.count", RELOAD_COUNT);
+        COUNTERS.put("reload.full.count", FULL_RELOAD_COUNT);
+        COUNTERS.put("rebase.count", REBASE_COUNT);
+        COUNTERS.put("checkpoint.count", CHECKPOINT_COUNT);
+        COUNTERS.put("journal.torn.count", TORN_RECORD_COUNT);
+        COUNTERS.put("deadline.count", DEADLINE_COUNT);
+        COUNTERS.put("watch.wakeup.count", WATCH_WAKEUP_COUNT);
+        COUNTERS.put("watch.dispatch.count", WATCH_DISPATCH_COUNT);
+        COUNTERS.put("events.published", EVENTS_PUBLISHED);
+        COUNTERS.put("events.dropped", EVENTS_DROPPED);
+        COUNTERS.put("log.lines.written", LOG_LINES_WRITTEN);
+        COUNTERS.put("log.lines.dropped", LOG_LINES_DROPPED);
+    }
+
+    private static volatile boolean registered;
+
+    public static synchronized void registerMBean() {
+        if (registered) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new TaskMetrics(), new ObjectName(OBJECT_NAME));
+            registered = true;
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        COUNTERS.forEach((name, counter) -> counters.put(name, counter.sum()));
+        return counters;
+    }
+
+    @Override
+    public Map<String, Long> getLatenciesMicros() {
+        Map<String, Long> latencies = new LinkedHashMap<>();
+        HISTOGRAMS.forEach((name, histogram) -> {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            latencies.put(name + ".count", snapshot.count());
+            latencies.put(name + ".p50", TimeUnit.NANOSECONDS.toMicros(snapshot.p50()));
+            latencies.put(name + ".p99", TimeUnit.NANOSECONDS.toMicros(snapshot.p99()));
+            latencies.put(name + ".max", TimeUnit.NANOSECONDS.toMicros(snapshot.max()));
+        });
+        return latencies;
+    }
+
+    @Override
+    public Map<String, Long> getExecutorGauges() {
+        Map<String, Long> gauges = new LinkedHashMap<>();
+        for (InstrumentedExecutor executor : TaskExecutors.all()) {
+            gauges.put(executor.getName() + ".queued", (long) executor.getQueueDepth());
+            gauges.put(executor.getName() + ".active", (long) executor.getActiveCount());
+            gauges.put(executor.getName() + ".completed", executor.getCompletedCount());
+        }
+        return gauges;
+    }
+
+    @Override
+    public String getReport() {
+        return report();
+    }
+
+    public static String report() {
+        StringBuilder sb = new StringBuilder("Latencies\n");
+        HISTOGRAMS.forEach((name, histogram) ->
+                sb.append("  ").append(name).append(": ").append(histogram.snapshot().format(TimeUnit.MICROSECONDS)).append('\n'));
+        sb.append("Counters\n");
+        COUNTERS.forEach((name, counter) -> sb.append("  ").append(name).append(": ").append(counter.sum()).append('\n'));
+        sb.append("Executors\n");
+        for (InstrumentedExecutor executor : TaskExecutors.all()) {
+            sb.append("  ").append(executor).append('\n');
+        }
+        return sb.toString();
+    }
+
+}
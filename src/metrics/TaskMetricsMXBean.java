@@ -0,0 +1,15 @@
+package metrics;
+
+import java.util.Map;
+
+public interface TaskMetricsMXBean {
+
+    Map<String, Long> getCounters();
+
+    Map<String, Long> getLatenciesMicros();
+
+    Map<String, Long> getExecutorGauges();
+
+    String getReport();
+
+}
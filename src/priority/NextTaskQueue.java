@@ -0,0 +1,255 @@
+package priority;
+
+import store.TaskStore;
+import task.Task;
+import task.state.Urgent;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class NextTaskQueue implements TaskStore.ChangeListener {
+
+    private static final int URGENT_RANK = 0;
+    private static final int PENDING_RANK = 1;
+    private static final long NO_DUE = Long.MAX_VALUE;
+
+    private final Positions positions;
+    private final ReentrantReadWriteLock lock;
+    private long[] ids;
+    private long[] dues;
+    private byte[] ranks;
+    private int size;
+
+    private static final class Positions {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys;
+        private int[] values;
+        private int mask;
+        private int size;
+
+        private Positions() {
+            allocate(16);
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            values = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            mask = capacity - 1;
+        }
+
+        private int slot(long id) {
+            int slot = Long.hashCode(id * 0x9E3779B97F4A7C15L) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private int get(long id) {
+            int slot = slot(id);
+            return keys[slot] == EMPTY ? -1 : values[slot];
+        }
+
+        private void put(long id, int position) {
+            int slot = slot(id);
+            if (keys[slot] == EMPTY) {
+                if ((size + 1) * 4 > keys.length * 3) {
+                    grow();
+                    slot = slot(id);
+                }
+                keys[slot] = id;
+                size++;
+            }
+            values[slot] = position;
+        }
+
+        private void remove(long id) {
+            int slot = slot(id);
+            if (keys[slot] == EMPTY) {
+                return;
+            }
+            keys[slot] = EMPTY;
+            size--;
+            int next = (slot + 1) & mask;
+            while (keys[next] != EMPTY) {
+                long key = keys[next];
+                int value = values[next];
+                keys[next] = EMPTY;
+                int target = slot(key);
+                keys[target] = key;
+                values[target] = value;
+                next = (next + 1) & mask;
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            allocate(oldKeys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = slot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    public NextTaskQueue() {
+        this.positions = new Positions();
+        this.lock = new ReentrantReadWriteLock();
+        this.ids = new long[16];
+        this.dues = new long[16];
+        this.ranks = new byte[16];
+    }
+
+    @Override
+    public void changed(Task previous, Task current) {
+        lock.writeLock().lock();
+        try {
+            if (current == null || current.isDone()) {
+                if (previous != null) {
+                    remove(previous.getId());
+                }
+                return;
+            }
+            if (previous != null && previous.getId() != current.getId()) {
+                remove(previous.getId());
+            }
+            offer(current.getId(), rankOf(current), current.getDueAt() == 0 ? NO_DUE : current.getDueAt());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] top(int limit) {
+        lock.readLock().lock();
+        try {
+            long[] result = new long[Math.min(limit, size)];
+            if (result.length == 0) {
+                return result;
+            }
+            PriorityQueue<Integer> frontier = new PriorityQueue<>(this::compare);
+            frontier.add(0);
+            for (int i = 0; i < result.length; i++) {
+                int position = frontier.remove();
+                result[i] = ids[position];
+                for (int child = 2 * position + 1; child <= 2 * position + 2 && child < size; child++) {
+                    frontier.add(child);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static byte rankOf(Task task) {
+        return (byte) (task.getState() instanceof Urgent ? URGENT_RANK : PENDING_RANK);
+    }
+
+    private void offer(long id, byte rank, long due) {
+        int position = positions.get(id);
+        if (position < 0) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                dues = Arrays.copyOf(dues, size * 2);
+                ranks = Arrays.copyOf(ranks, size * 2);
+            }
+            position = size++;
+        } else if (ranks[position] == rank && dues[position] == due) {
+            return;
+        }
+        ids[position] = id;
+        ranks[position] = rank;
+        dues[position] = due;
+        positions.put(id, position);
+        siftDown(siftUp(position));
+    }
+
+    private void remove(long id) {
+        int position = positions.get(id);
+        if (position < 0) {
+            return;
+        }
+        positions.remove(id);
+        int last = --size;
+        if (position == last) {
+            return;
+        }
+        move(last, position);
+        siftDown(siftUp(position));
+    }
+
+    private int siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (compare(parent, position) <= 0) {
+                break;
+            }
+            swap(parent, position);
+            position = parent;
+        }
+        return position;
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            if (left < size && compare(left, smallest) < 0) {
+                smallest = left;
+            }
+            if (left + 1 < size && compare(left + 1, smallest) < 0) {
+                smallest = left + 1;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private int compare(int a, int b) {
+        if (ranks[a] != ranks[b]) {
+            return Integer.compare(ranks[a], ranks[b]);
+        }
+        if (dues[a] != dues[b]) {
+            return Long.compare(dues[a], dues[b]);
+        }
+        return Long.compare(ids[a], ids[b]);
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        long due = dues[a];
+        byte rank = ranks[a];
+        move(b, a);
+        ids[b] = id;
+        dues[b] = due;
+        ranks[b] = rank;
+        positions.put(id, b);
+    }
+
+    private void move(int from, int to) {
+        ids[to] = ids[from];
+        dues[to] = dues[from];
+        ranks[to] = ranks[from];
+        positions.put(ids[to], to);
+    }
+
+}
@@ -0,0 +1,89 @@
+package render;
+
+import format.CheckpointView;
+import store.TaskStore;
+import task.Task;
+import task.state.TaskState;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TaskRenderer implements TaskStore.ChangeListener {
+
+    private static final int PAGE_SIZE = Math.max(1, Integer.getInteger("tasks.render.pageSize", 20));
+
+    private final Map<Long, Line> lines;
+
+    private record Line(String title, String description, TaskState state, long dueAt, String info) {
+        private boolean matches(Task task) {
+            return state == task.getState()
+                    && dueAt == task.getDueAt()
+                    && title.equals(task.getTitle())
+                    && description.equals(task.getDescription());
+        }
+    }
+
+    public TaskRenderer() {
+        this.lines = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void changed(Task previous, Task current) {
+        if (previous != null) {
+            lines.remove(previous.getId());
+        }
+    }
+
+    public int pageCount(int size) {
+        return Math.max(1, (size + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    public String infoOf(Task task) {
+        Line line = lines.get(task.getId());
+        if (line != null && line.matches(task)) {
+            return line.info();
+        }
+        String info = task.getInfo();
+        if (task.getId() > 0) {
+            lines.put(task.getId(), new Line(task.getTitle(), task.getDescription(), task.getState(), task.getDueAt(), info));
+        }
+        return info;
+    }
+
+    public void printPage(PrintStream out, TaskStore.Snapshot snapshot, int[] indexes, int page, String footer) {
+        int count = indexes == null ? snapshot.size() : indexes.length;
+        int pages = pageCount(count);
+        int from = page * PAGE_SIZE;
+        int to = Math.min(count, from + PAGE_SIZE);
+        StringBuilder sb = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            int index = indexes == null ? i : indexes[i];
+            sb.append(index + 1).append(". ").append(infoOf(snapshot.get(index))).append('\n');
+        }
+        if (pages > 1) {
+            sb.append("Page ").append(page + 1).append(" of ").append(pages).append('\n');
+        }
+        if (footer != null) {
+            sb.append(footer).append('\n');
+        }
+        out.print(sb);
+    }
+
+    public boolean printPreview(PrintStream out, CheckpointView checkpoint, int page) {
+        int from = page * PAGE_SIZE;
+        List<Task> tasks = checkpoint.read(from, PAGE_SIZE + 1);
+        boolean more = tasks.size() > PAGE_SIZE;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Math.min(tasks.size(), PAGE_SIZE); i++) {
+            sb.append(from + i + 1).append(". ").append(tasks.get(i).getInfo()).append('\n');
+        }
+        if (page > 0 || more) {
+            sb.append("Page ").append(page + 1).append('\n');
+        }
+        out.print(sb);
+        return more;
+    }
+
+}
@@ -0,0 +1,316 @@
+package search;
+
+import metrics.TaskMetrics;
+import store.TaskStore;
+import task.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class SearchIndex implements TaskStore.ChangeListener {
+
+    private static final int TITLE_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double EXACT_MATCH_BOOST = 1.5;
+
+    private final TreeMap<String, Posting> terms;
+    private final ReentrantReadWriteLock lock;
+    private int documents;
+
+    public record Hit(long id, double score) {
+    }
+
+    private static final class Posting {
+        private long[] ids = new long[2];
+        private int[] weights = new int[2];
+        private int size;
+
+        private void add(long id, int weight) {
+            int position = size > 0 && ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                weights[position] += weight;
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            System.arraycopy(weights, position, weights, position + 1, size - position);
+            ids[position] = id;
+            weights[position] = weight;
+            size++;
+        }
+
+        private void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            System.arraycopy(weights, position + 1, weights, position, size - position - 1);
+            size--;
+        }
+    }
+
+    private final class Term {
+        private final Posting[] postings;
+        private final double[] boosts;
+        private final long estimate;
+        private final double idf;
+
+        private Term(String token, NavigableMap<String, Posting> expansions) {
+            postings = new Posting[expansions.size()];
+            boosts = new double[postings.length];
+            long total = 0;
+            int i = 0;
+            for (Map.Entry<String, Posting> expansion : expansions.entrySet()) {
+                postings[i] = expansion.getValue();
+                boosts[i++] = expansion.getKey().length() == token.length() ? EXACT_MATCH_BOOST : 1;
+                total += expansion.getValue().size;
+            }
+            estimate = total;
+            idf = Math.log(1 + (double) documents / Math.max(1, Math.min(total, documents)));
+        }
+    }
+
+    private static final class Matches {
+        private long[] ids;
+        private double[] scores;
+        private int size;
+
+        private Matches(int capacity) {
+            ids = new long[Math.max(capacity, 1)];
+            scores = new double[ids.length];
+        }
+
+        private void merge(long id, double score) {
+            if (size > 0 && ids[size - 1] == id) {
+                scores[size - 1] = Math.max(scores[size - 1], score);
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            ids[size] = id;
+            scores[size++] = score;
+        }
+    }
+
+    public SearchIndex() {
+        this.terms = new TreeMap<>();
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    @Override
+    public void changed(Task previous, Task current) {
+        lock.writeLock().lock();
+        try {
+            if (previous != null) {
+                remove(previous);
+            }
+            if (current != null) {
+                add(current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Hit> search(String query, int limit) {
+        List<String> tokens = tokenize(query).stream().distinct().toList();
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        long started = TaskMetrics.SEARCH.start();
+        lock.readLock().lock();
+        try {
+            List<Term> plan = new ArrayList<>();
+            for (String token : tokens) {
+                Term term = new Term(token, terms.subMap(token, true, token + Character.MAX_VALUE, false));
+                if (term.estimate == 0) {
+                    return List.of();
+                }
+                plan.add(term);
+            }
+            plan.sort(Comparator.comparingLong(term -> term.estimate));
+            Matches matches = null;
+            for (Term term : plan) {
+                if (matches == null) {
+                    matches = collect(term);
+                } else if ((long) matches.size * term.postings.length < term.estimate) {
+                    matches = restrict(matches, term);
+                } else {
+                    matches = intersect(matches, collect(term));
+                }
+                if (matches.size == 0) {
+                    return List.of();
+                }
+            }
+            return top(matches, limit);
+        } finally {
+            lock.readLock().unlock();
+            TaskMetrics.SEARCH.stop(started);
+        }
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private Matches collect(Term term) {
+        Matches matches = new Matches((int) Math.min(term.estimate, documents));
+        int[] cursors = new int[term.postings.length];
+        int[] heap = new int[term.postings.length];
+        int heapSize = 0;
+        for (int i = 0; i < term.postings.length; i++) {
+            heap[heapSize] = i;
+            siftUp(heap, heapSize++, term.postings, cursors);
+        }
+        while (heapSize > 0) {
+            int i = heap[0];
+            Posting posting = term.postings[i];
+            matches.merge(posting.ids[cursors[i]], posting.weights[cursors[i]] * term.boosts[i] * term.idf);
+            if (++cursors[i] == posting.size) {
+                heap[0] = heap[--heapSize];
+            }
+            siftDown(heap, heapSize, term.postings, cursors);
+        }
+        return matches;
+    }
+
+    private static Matches restrict(Matches candidates, Term term) {
+        Matches matches = new Matches(candidates.size);
+        for (int j = 0; j < candidates.size; j++) {
+            long id = candidates.ids[j];
+            double best = 0;
+            for (int i = 0; i < term.postings.length; i++) {
+                Posting posting = term.postings[i];
+                int position = Arrays.binarySearch(posting.ids, 0, posting.size, id);
+                if (position >= 0) {
+                    best = Math.max(best, posting.weights[position] * term.boosts[i]);
+                }
+            }
+            if (best > 0) {
+                matches.merge(id, candidates.scores[j] + best * term.idf);
+            }
+        }
+        return matches;
+    }
+
+    private static Matches intersect(Matches left, Matches right) {
+        Matches matches = new Matches(Math.min(left.size, right.size));
+        int i = 0;
+        int j = 0;
+        while (i < left.size && j < right.size) {
+            if (left.ids[i] < right.ids[j]) {
+                i++;
+            } else if (left.ids[i] > right.ids[j]) {
+                j++;
+            } else {
+                matches.merge(left.ids[i], left.scores[i++] + right.scores[j++]);
+            }
+        }
+        return matches;
+    }
+
+    private static List<Hit> top(Matches matches, int limit) {
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::id);
+        PriorityQueue<Hit> best = new PriorityQueue<>(ranking.reversed());
+        for (int i = 0; i < matches.size; i++) {
+            Hit hit = new Hit(matches.ids[i], matches.scores[i]);
+            if (best.size() < limit) {
+                best.add(hit);
+            } else if (ranking.compare(hit, best.peek()) < 0) {
+                best.poll();
+                best.add(hit);
+            }
+        }
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(ranking);
+        return hits;
+    }
+
+    private static void siftUp(int[] heap, int index, Posting[] postings, int[] cursors) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (head(heap[parent], postings, cursors) <= head(heap[index], postings, cursors)) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, Posting[] postings, int[] cursors) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            for (int child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+                if (head(heap[child], postings, cursors) < head(heap[smallest], postings, cursors)) {
+                    smallest = child;
+                }
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(heap, smallest, index);
+            index = smallest;
+        }
+    }
+
+    private static long head(int posting, Posting[] postings, int[] cursors) {
+        return postings[posting].ids[cursors[posting]];
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int value = heap[i];
+        heap[i] = heap[j];
+        heap[j] = value;
+    }
+
+    private void add(Task task) {
+        for (String token : tokenize(task.getTitle())) {
+            terms.computeIfAbsent(token, t -> new Posting()).add(task.getId(), TITLE_WEIGHT);
+        }
+        for (String token : tokenize(task.getDescription())) {
+            terms.computeIfAbsent(token, t -> new Posting()).add(task.getId(), DESCRIPTION_WEIGHT);
+        }
+        documents++;
+    }
+
+    private void remove(Task task) {
+        for (String token : tokenize(task.getTitle() + " " + task.getDescription())) {
+            Posting posting = terms.get(token);
+            if (posting != null) {
+                posting.remove(task.getId());
+                if (posting.size == 0) {
+                    terms.remove(token);
+                }
+            }
+        }
+        documents--;
+    }
+
+}
@@ -0,0 +1,302 @@
+package store;
+
+import task.Task;
+import task.state.TaskState;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+final class CompactTaskList extends AbstractList<Task> implements RandomAccess {
+
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int MIN_CHUNKS = 4;
+    private static final double GARBAGE_RATIO = 2.0;
+    private static final long MIN_COMPACT_BYTES = 1 << 20;
+    private static final byte TOMBSTONE = -1;
+
+    private StringArena arena;
+    private Chunk[] chunks;
+    private boolean[] owned;
+    private int size;
+    private long liveBytes;
+
+    private static final class Chunk {
+        private final long[] ids = new long[CHUNK_SIZE];
+        private final int[] titles = new int[CHUNK_SIZE];
+        private final int[] descriptions = new int[CHUNK_SIZE];
+        private final byte[] states = new byte[CHUNK_SIZE];
+        private long[] timing;
+
+        private Chunk copy() {
+            Chunk chunk = new Chunk();
+            System.arraycopy(ids, 0, chunk.ids, 0, CHUNK_SIZE);
+            System.arraycopy(titles, 0, chunk.titles, 0, CHUNK_SIZE);
+            System.arraycopy(descriptions, 0, chunk.descriptions, 0, CHUNK_SIZE);
+            System.arraycopy(states, 0, chunk.states, 0, CHUNK_SIZE);
+            chunk.timing = timing == null ? null : timing.clone();
+            return chunk;
+        }
+
+        private void move(int from, int to, int length) {
+            System.arraycopy(ids, from, ids, to, length);
+            System.arraycopy(titles, from, titles, to, length);
+            System.arraycopy(descriptions, from, descriptions, to, length);
+            System.arraycopy(states, from, states, to, length);
+            if (timing != null) {
+                System.arraycopy(timing, from * 2, timing, to * 2, length * 2);
+            }
+        }
+
+        private void copyRow(int to, Chunk source, int from) {
+            ids[to] = source.ids[from];
+            titles[to] = source.titles[from];
+            descriptions[to] = source.descriptions[from];
+            states[to] = source.states[from];
+            setTiming(to, source.dueAt(from), source.remindAt(from));
+        }
+
+        private long dueAt(int row) {
+            return timing == null ? 0 : timing[row * 2];
+        }
+
+        private long remindAt(int row) {
+            return timing == null ? 0 : timing[row * 2 + 1];
+        }
+
+        private void setTiming(int row, long dueAt, long remindAt) {
+            if (timing == null) {
+                if (dueAt == 0 && remindAt == 0) {
+                    return;
+                }
+                timing = new long[CHUNK_SIZE * 2];
+            }
+            timing[row * 2] = dueAt;
+            timing[row * 2 + 1] = remindAt;
+        }
+    }
+
+    CompactTaskList() {
+        this.arena = new StringArena();
+        this.chunks = new Chunk[MIN_CHUNKS];
+        this.owned = new boolean[MIN_CHUNKS];
+    }
+
+    private CompactTaskList(CompactTaskList source) {
+        this.arena = source.arena;
+        this.chunks = source.chunks.clone();
+        this.owned = new boolean[chunks.length];
+        this.size = source.size;
+        this.liveBytes = source.liveBytes;
+    }
+
+    CompactTaskList copy() {
+        return new CompactTaskList(this);
+    }
+
+    @Override
+    public Task get(int i) {
+        Objects.checkIndex(i, size);
+        return view(i);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    long idAt(int i) {
+        return chunks[i >>> CHUNK_BITS].ids[i & CHUNK_MASK];
+    }
+
+    boolean isTombstone(int i) {
+        return chunks[i >>> CHUNK_BITS].states[i & CHUNK_MASK] == TOMBSTONE;
+    }
+
+    TaskState stateAt(int i) {
+        return TaskState.of(chunks[i >>> CHUNK_BITS].states[i & CHUNK_MASK]);
+    }
+
+    @Override
+    public Task set(int i, Task task) {
+        Objects.checkIndex(i, size);
+        Task previous = view(i);
+        Chunk chunk = writable(i >>> CHUNK_BITS);
+        int row = i & CHUNK_MASK;
+        if (task == null) {
+            if (previous != null) {
+                liveBytes -= arena.lengthOf(chunk.titles[row]) + arena.lengthOf(chunk.descriptions[row]);
+                chunk.states[row] = TOMBSTONE;
+            }
+            return previous;
+        }
+        if (previous == null || !task.getTitle().equals(previous.getTitle())) {
+            if (previous != null) {
+                liveBytes -= arena.lengthOf(chunk.titles[row]);
+            }
+            chunk.titles[row] = append(task.getTitle());
+        }
+        if (previous == null || !task.getDescription().equals(previous.getDescription())) {
+            if (previous != null) {
+                liveBytes -= arena.lengthOf(chunk.descriptions[row]);
+            }
+            chunk.descriptions[row] = append(task.getDescription());
+        }
+        chunk.states[row] = task.getState().getCode();
+        chunk.ids[row] = task.getId();
+        chunk.setTiming(row, task.getDueAt(), task.getRemindAt());
+        compactIfNeeded();
+        return previous;
+    }
+
+    @Override
+    public void add(int i, Task task) {
+        Objects.checkIndex(i, size + 1);
+        shiftRight(i);
+        Chunk chunk = writable(i >>> CHUNK_BITS);
+        int row = i & CHUNK_MASK;
+        chunk.ids[row] = task.getId();
+        chunk.titles[row] = append(task.getTitle());
+        chunk.descriptions[row] = append(task.getDescription());
+        chunk.states[row] = task.getState().getCode();
+        chunk.setTiming(row, task.getDueAt(), task.getRemindAt());
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int i) {
+        Objects.checkIndex(i, size);
+        Task removed = view(i);
+        if (removed != null) {
+            Chunk chunk = chunks[i >>> CHUNK_BITS];
+            int row = i & CHUNK_MASK;
+            liveBytes -= arena.lengthOf(chunk.titles[row]) + arena.lengthOf(chunk.descriptions[row]);
+        }
+        shiftLeft(i);
+        size--;
+        if ((size & CHUNK_MASK) == 0) {
+            chunks[size >>> CHUNK_BITS] = null;
+        }
+        modCount++;
+        compactIfNeeded();
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        arena = new StringArena();
+        chunks = new Chunk[MIN_CHUNKS];
+        owned = new boolean[MIN_CHUNKS];
+        size = 0;
+        liveBytes = 0;
+        modCount++;
+    }
+
+    void removeTombstones() {
+        Chunk[] source = chunks;
+        int count = size;
+        chunks = new Chunk[Math.max(MIN_CHUNKS, source.length)];
+        owned = new boolean[chunks.length];
+        size = 0;
+        for (int i = 0; i < count; i++) {
+            Chunk chunk = source[i >>> CHUNK_BITS];
+            int row = i & CHUNK_MASK;
+            if (chunk.states[row] != TOMBSTONE) {
+                writable(size >>> CHUNK_BITS).copyRow(size & CHUNK_MASK, chunk, row);
+                size++;
+            }
+        }
+        modCount++;
+    }
+
+    private Task view(int i) {
+        Chunk chunk = chunks[i >>> CHUNK_BITS];
+        int row = i & CHUNK_MASK;
+        if (chunk.states[row] == TOMBSTONE) {
+            return null;
+        }
+        Task task = new Task(chunk.ids[row], arena.get(chunk.titles[row]), arena.get(chunk.descriptions[row]));
+        task.setState(TaskState.of(chunk.states[row]));
+        task.setDueAt(chunk.dueAt(row));
+        task.setRemindAt(chunk.remindAt(row));
+        return task;
+    }
+
+    private Chunk writable(int c) {
+        if (c >= chunks.length) {
+            int length = Math.max(c + 1, chunks.length + (chunks.length >> 1));
+            chunks = Arrays.copyOf(chunks, length);
+            owned = Arrays.copyOf(owned, length);
+        }
+        if (chunks[c] == null) {
+            chunks[c] = new Chunk();
+            owned[c] = true;
+        } else if (!owned[c]) {
+            chunks[c] = chunks[c].copy();
+            owned[c] = true;
+        }
+        return chunks[c];
+    }
+
+    private void shiftRight(int from) {
+        int last = size;
+        for (int c = last >>> CHUNK_BITS; c >= from >>> CHUNK_BITS && last > from; c--) {
+            Chunk chunk = writable(c);
+            int base = c << CHUNK_BITS;
+            int lo = Math.max(from + 1, base + 1);
+            int hi = Math.min(last, base + CHUNK_MASK);
+            if (hi >= lo) {
+                chunk.move(lo - 1 - base, lo - base, hi - lo + 1);
+            }
+            if (base > from && base <= last) {
+                chunk.copyRow(0, chunks[c - 1], CHUNK_MASK);
+            }
+        }
+    }
+
+    private void shiftLeft(int from) {
+        int last = size - 2;
+        for (int c = from >>> CHUNK_BITS; c <= last >>> CHUNK_BITS && last >= from; c++) {
+            Chunk chunk = writable(c);
+            int base = c << CHUNK_BITS;
+            int lo = Math.max(from, base);
+            int hi = Math.min(last, base + CHUNK_MASK - 1);
+            if (hi >= lo) {
+                chunk.move(lo + 1 - base, lo - base, hi - lo + 1);
+            }
+            int end = base + CHUNK_MASK;
+            if (end >= from && end <= last) {
+                chunk.copyRow(CHUNK_MASK, chunks[c + 1], 0);
+            }
+        }
+    }
+
+    private int append(String value) {
+        int ref = arena.append(value);
+        liveBytes += arena.lengthOf(ref);
+        return ref;
+    }
+
+    private void compactIfNeeded() {
+        if (arena.size() < MIN_COMPACT_BYTES || arena.size() < liveBytes * GARBAGE_RATIO) {
+            return;
+        }
+        StringArena previous = arena;
+        arena = new StringArena();
+        liveBytes = 0;
+        for (int i = 0; i < size; i++) {
+            if (chunks[i >>> CHUNK_BITS].states[i & CHUNK_MASK] == TOMBSTONE) {
+                continue;
+            }
+            Chunk chunk = writable(i >>> CHUNK_BITS);
+            int row = i & CHUNK_MASK;
+            chunk.titles[row] = append(previous.get(chunk.titles[row]));
+            chunk.descriptions[row] = append(previous.get(chunk.descriptions[row]));
+        }
+    }
+
+}
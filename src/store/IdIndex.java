@@ -0,0 +1,148 @@
+package store;
+
+import java.util.function.IntToLongFunction;
+
+final class IdIndex {
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int MAX_LOAD_PERCENT = 75;
+
+    private final IntToLongFunction idAt;
+    private int[][] pages;
+    private boolean[] owned;
+    private int mask;
+    private int size;
+
+    IdIndex(IntToLongFunction idAt) {
+        this.idAt = idAt;
+        clear();
+    }
+
+    private IdIndex(IdIndex source, IntToLongFunction idAt) {
+        this.idAt = idAt;
+        this.pages = source.pages.clone();
+        this.owned = new boolean[pages.length];
+        this.mask = source.mask;
+        this.size = source.size;
+    }
+
+    IdIndex copy(IntToLongFunction idAt) {
+        return new IdIndex(this, idAt);
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        allocate(PAGE_SIZE);
+        size = 0;
+    }
+
+    int find(long id) {
+        for (int position = hash(id) & mask; ; position = (position + 1) & mask) {
+            int entry = entry(position);
+            if (entry == 0) {
+                return -1;
+            }
+            if (idAt.applyAsLong(entry - 1) == id) {
+                return entry - 1;
+            }
+        }
+    }
+
+    void put(long id, int slot) {
+        if ((size + 1) * 100L > (mask + 1L) * MAX_LOAD_PERCENT) {
+            grow();
+        }
+        for (int position = hash(id) & mask; ; position = (position + 1) & mask) {
+            int entry = entry(position);
+            if (entry == 0) {
+                setEntry(position, slot + 1);
+                size++;
+                return;
+            }
+            if (idAt.applyAsLong(entry - 1) == id) {
+                setEntry(position, slot + 1);
+                return;
+            }
+        }
+    }
+
+    void remove(long id) {
+        int hole = hash(id) & mask;
+        while (true) {
+            int entry = entry(hole);
+            if (entry == 0) {
+                return;
+            }
+            if (idAt.applyAsLong(entry - 1) == id) {
+                break;
+            }
+            hole = (hole + 1) & mask;
+        }
+        for (int position = (hole + 1) & mask; ; position = (position + 1) & mask) {
+            int entry = entry(position);
+            if (entry == 0) {
+                break;
+            }
+            int home = hash(idAt.applyAsLong(entry - 1)) & mask;
+            boolean stays = position > hole ? home > hole && home <= position : home > hole || home <= position;
+            if (!stays) {
+                setEntry(hole, entry);
+                hole = position;
+            }
+        }
+        setEntry(hole, 0);
+        size--;
+    }
+
+    private void grow() {
+        int[][] previous = pages;
+        allocate((mask + 1) * 2);
+        for (int[] page : previous) {
+            for (int entry : page) {
+                if (entry != 0) {
+                    long id = idAt.applyAsLong(entry - 1);
+                    int position = hash(id) & mask;
+                    while (entry(position) != 0) {
+                        position = (position + 1) & mask;
+                    }
+                    pages[position >>> PAGE_BITS][position & PAGE_MASK] = entry;
+                }
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        int count = capacity >>> PAGE_BITS;
+        pages = new int[count][];
+        owned = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            pages[i] = new int[PAGE_SIZE];
+            owned[i] = true;
+        }
+        mask = capacity - 1;
+    }
+
+    private int entry(int position) {
+        return pages[position >>> PAGE_BITS][position & PAGE_MASK];
+    }
+
+    private void setEntry(int position, int entry) {
+        int page = position >>> PAGE_BITS;
+        if (!owned[page]) {
+            pages[page] = pages[page].clone();
+            owned[page] = true;
+        }
+        pages[page][position & PAGE_MASK] = entry;
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+}
@@ -0,0 +1,321 @@
+package store;
+
+import task.Task;
+import task.state.TaskState;
+
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+public class IndexedTaskList extends AbstractList<Task> implements RandomAccess {
+
+    private static final int COMPACT_MIN_TOMBSTONES = Integer.getInteger("tasks.store.compactTombstones", 1024);
+    private static final int COMPACT_TOMBSTONE_DIVISOR = 4;
+
+    private final List<Task> slots;
+    private final StateIndex index;
+    private final SlotBits live;
+    private final IdIndex ids;
+    private int tombstones;
+    private long nextId;
+    private Map<Long, Task> changes;
+    private TaskStore.IdAllocator allocator;
+
+    public IndexedTaskList() {
+        this(false);
+    }
+
+    IndexedTaskList(boolean compact) {
+        this.slots = compact ? new CompactTaskList() : new TaskPages();
+        this.index = new StateIndex();
+        this.live = new SlotBits();
+        this.ids = new IdIndex(this::idAt);
+        this.nextId = 1;
+    }
+
+    IndexedTaskList(IndexedTaskList source) {
+        this.slots = source.slots instanceof CompactTaskList compact ? compact.copy() : ((TaskPages) source.slots).copy();
+        this.index = source.index.copy();
+        this.live = source.live.copy();
+        this.ids = source.ids.copy(this::idAt);
+        this.tombstones = source.tombstones;
+        this.nextId = source.nextId;
+    }
+
+    StateIndex index() {
+        return index;
+    }
+
+    SlotBits live() {
+        return live;
+    }
+
+    int tombstones() {
+        return tombstones;
+    }
+
+    Task slot(int slot) {
+        return slots.get(slot);
+    }
+
+    boolean occupied(int slot) {
+        return slots instanceof CompactTaskList compact ? !compact.isTombstone(slot) : slots.get(slot) != null;
+    }
+
+    int slotOf(long id) {
+        return ids.find(id);
+    }
+
+    public Task find(long id) {
+        int slot = ids.find(id);
+        return slot < 0 ? null : slots.get(slot);
+    }
+
+    public Task replace(Task task) {
+        int slot = ids.find(task.getId());
+        if (slot < 0) {
+            return null;
+        }
+        Task previous = slots.set(slot, task);
+        index.replaced(slot, previous, task);
+        recordChange(task.getId(), previous);
+        return previous;
+    }
+
+    public Task removeById(long id) {
+        int slot = ids.find(id);
+        return slot < 0 ? null : vacate(slot);
+    }
+
+    public int removeAll(long[] removed) {
+        int count = 0;
+        for (long id : removed) {
+            int slot = ids.find(id);
+            if (slot >= 0) {
+                tombstone(slot);
+                count++;
+            }
+        }
+        if (count > 0) {
+            trimTombstones();
+            modCount++;
+        }
+        return count;
+    }
+
+    public long[] idsMatching(Predicate<Task> predicate, boolean parallel) {
+        removeTombstones();
+        IntStream scan = IntStream.range(0, slots.size());
+        return (parallel ? scan.parallel() : scan)
+                .filter(slot -> predicate.test(slots.get(slot)))
+                .mapToLong(this::idAt)
+                .toArray();
+    }
+
+    @Override
+    public Task get(int i) {
+        removeTombstones();
+        return slots.get(i);
+    }
+
+    @Override
+    public int size() {
+        return slots.size() - tombstones;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Task task)) {
+            return -1;
+        }
+        removeTombstones();
+        return ids.find(task.getId());
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public Task set(int i, Task task) {
+        removeTombstones();
+        Task previous = slots.get(i);
+        recordChange(previous.getId(), previous);
+        if (previous.getId() != task.getId()) {
+            ids.remove(previous.getId());
+            assignId(task);
+            recordChange(task.getId(), null);
+            slots.set(i, task);
+            ids.put(task.getId(), i);
+        } else {
+            slots.set(i, task);
+        }
+        index.replaced(i, previous, task);
+        return previous;
+    }
+
+    @Override
+    public void add(int i, Task task) {
+        Objects.requireNonNull(task);
+        if (i != size()) {
+            removeTombstones();
+            Objects.checkIndex(i, slots.size() + 1);
+            assignId(task);
+            recordChange(task.getId(), null);
+            slots.add(i, task);
+            reindex();
+            modCount++;
+            return;
+        }
+        assignId(task);
+        recordChange(task.getId(), null);
+        int slot = slots.size();
+        slots.add(task);
+        index.added(slot, task);
+        live.set(slot);
+        ids.put(task.getId(), slot);
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int i) {
+        removeTombstones();
+        Objects.checkIndex(i, slots.size());
+        return vacate(i);
+    }
+
+    @Override
+    public void clear() {
+        if (changes != null) {
+            for (int slot = 0; slot < slots.size(); slot++) {
+                if (occupied(slot)) {
+                    recordChange(idAt(slot), slots.get(slot));
+                }
+            }
+        }
+        slots.clear();
+        index.clear();
+        live.clear();
+        ids.clear();
+        tombstones = 0;
+        modCount++;
+    }
+
+    void allocateIdsWith(TaskStore.IdAllocator allocator) {
+        this.allocator = allocator;
+    }
+
+    void trackChanges() {
+        changes = new LinkedHashMap<>();
+    }
+
+    void forEachChange(BiConsumer<Task, Task> action) {
+        if (changes == null) {
+            return;
+        }
+        for (Map.Entry<Long, Task> change : changes.entrySet()) {
+            Task previous = change.getValue();
+            Task current = find(change.getKey());
+            if (previous != null || current != null) {
+                if (previous == null || current == null || !sameContent(previous, current)) {
+                    action.accept(previous, current);
+                }
+            }
+        }
+        changes = null;
+    }
+
+    void compactIfNeeded() {
+        if (tombstones > COMPACT_MIN_TOMBSTONES && tombstones > size() / COMPACT_TOMBSTONE_DIVISOR) {
+            removeTombstones();
+        }
+    }
+
+    private Task vacate(int slot) {
+        Task removed = tombstone(slot);
+        trimTombstones();
+        modCount++;
+        return removed;
+    }
+
+    private Task tombstone(int slot) {
+        Task removed = slots.get(slot);
+        recordChange(removed.getId(), removed);
+        ids.remove(removed.getId());
+        index.vacated(slot, removed);
+        live.clear(slot);
+        slots.set(slot, null);
+        tombstones++;
+        return removed;
+    }
+
+    private void trimTombstones() {
+        while (tombstones > 0 && slots.get(slots.size() - 1) == null) {
+            slots.remove(slots.size() - 1);
+            tombstones--;
+        }
+    }
+
+    private void recordChange(long id, Task previous) {
+        if (changes != null && !changes.containsKey(id)) {
+            changes.put(id, previous);
+        }
+    }
+
+    private static boolean sameContent(Task previous, Task current) {
+        return previous.getState() == current.getState()
+                && previous.getDueAt() == current.getDueAt()
+                && previous.getRemindAt() == current.getRemindAt()
+                && previous.getTitle().equals(current.getTitle())
+                && previous.getDescription().equals(current.getDescription());
+    }
+
+    private void assignId(Task task) {
+        long id = task.getId();
+        if (id <= 0 || ids.find(id) >= 0) {
+            id = allocator == null ? nextId : Math.max(nextId, allocator.allocate(nextId));
+            task.setId(id);
+        }
+        nextId = Math.max(nextId, id + 1);
+    }
+
+    private void removeTombstones() {
+        if (tombstones == 0) {
+            return;
+        }
+        if (slots instanceof CompactTaskList compact) {
+            compact.removeTombstones();
+        } else {
+            slots.removeIf(Objects::isNull);
+        }
+        tombstones = 0;
+        reindex();
+    }
+
+    private void reindex() {
+        index.clear();
+        live.clear();
+        ids.clear();
+        for (int i = 0; i < slots.size(); i++) {
+            index.added(i, stateAt(i));
+            live.set(i);
+            ids.put(idAt(i), i);
+        }
+    }
+
+    private TaskState stateAt(int slot) {
+        return slots instanceof CompactTaskList compact ? compact.stateAt(slot) : slots.get(slot).getState();
+    }
+
+    private long idAt(int slot) {
+        return slots instanceof CompactTaskList compact ? compact.idAt(slot) : slots.get(slot).getId();
+    }
+
+}
@@ -0,0 +1,197 @@
+package store;
+
+import java.util.Arrays;
+
+final class SlotBits {
+
+    private static final int WORD_BITS = 6;
+    private static final int PAGE_WORDS_BITS = 6;
+    private static final int PAGE_WORDS = 1 << PAGE_WORDS_BITS;
+    private static final int PAGE_BITS = WORD_BITS + PAGE_WORDS_BITS;
+    private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+    private static final long[] EMPTY_PAGE = new long[PAGE_WORDS];
+
+    private long[][] pages;
+    private int[] counts;
+    private boolean[] owned;
+    private int count;
+    private volatile int[] prefix;
+
+    SlotBits() {
+        clear();
+    }
+
+    private SlotBits(SlotBits source) {
+        this.pages = source.pages.clone();
+        this.counts = source.counts.clone();
+        this.owned = new boolean[pages.length];
+        this.count = source.count;
+    }
+
+    SlotBits copy() {
+        return new SlotBits(this);
+    }
+
+    void clear() {
+        pages = new long[0][];
+        counts = new int[0];
+        owned = new boolean[0];
+        count = 0;
+        prefix = null;
+    }
+
+    int count() {
+        return count;
+    }
+
+    boolean get(int slot) {
+        int page = slot >>> PAGE_BITS;
+        if (page >= pages.length) {
+            return false;
+        }
+        return (pages[page][(slot & PAGE_MASK) >>> WORD_BITS] & (1L << slot)) != 0;
+    }
+
+    void set(int slot) {
+        if (get(slot)) {
+            return;
+        }
+        long[] page = ownPage(slot >>> PAGE_BITS);
+        page[(slot & PAGE_MASK) >>> WORD_BITS] |= 1L << slot;
+        counts[slot >>> PAGE_BITS]++;
+        count++;
+        prefix = null;
+    }
+
+    void clear(int slot) {
+        if (!get(slot)) {
+            return;
+        }
+        long[] page = ownPage(slot >>> PAGE_BITS);
+        page[(slot & PAGE_MASK) >>> WORD_BITS] &= ~(1L << slot);
+        counts[slot >>> PAGE_BITS]--;
+        count--;
+        prefix = null;
+    }
+
+    int rank(int slot) {
+        int page = slot >>> PAGE_BITS;
+        if (page >= pages.length) {
+            return count;
+        }
+        int rank = prefix()[page];
+        long[] words = pages[page];
+        int word = (slot & PAGE_MASK) >>> WORD_BITS;
+        for (int i = 0; i < word; i++) {
+            rank += Long.bitCount(words[i]);
+        }
+        return rank + Long.bitCount(words[word] & ((1L << slot) - 1));
+    }
+
+    int select(int rank) {
+        int[] prefix = prefix();
+        int low = 0;
+        int high = prefix.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (prefix[middle] <= rank) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        int page = low;
+        int remaining = rank - prefix[page];
+        long[] words = pages[page];
+        for (int word = 0; ; word++) {
+            int bits = Long.bitCount(words[word]);
+            if (remaining < bits) {
+                long value = words[word];
+                for (int i = 0; i < remaining; i++) {
+                    value &= value - 1;
+                }
+                return (page << PAGE_BITS) + (word << WORD_BITS) + Long.numberOfTrailingZeros(value);
+            }
+            remaining -= bits;
+        }
+    }
+
+    int next(int slot) {
+        int page = slot >>> PAGE_BITS;
+        int word = (slot & PAGE_MASK) >>> WORD_BITS;
+        long value = page < pages.length ? pages[page][word] & (-1L << slot) : 0;
+        while (value == 0) {
+            if (++word == PAGE_WORDS) {
+                word = 0;
+                do {
+                    page++;
+                } while (page < pages.length && counts[page] == 0);
+            }
+            if (page >= pages.length) {
+                return -1;
+            }
+            value = pages[page][word];
+        }
+        return (page << PAGE_BITS) + (word << WORD_BITS) + Long.numberOfTrailingZeros(value);
+    }
+
+    int[] toArray() {
+        int[] slots = new int[count];
+        int i = 0;
+        for (int slot = next(0); slot >= 0; slot = next(slot + 1)) {
+            slots[i++] = slot;
+        }
+        return slots;
+    }
+
+    void ranks(int[] sortedSlots) {
+        int page = 0;
+        int word = 0;
+        int rank = 0;
+        for (int i = 0; i < sortedSlots.length; i++) {
+            int slot = sortedSlots[i];
+            int targetPage = slot >>> PAGE_BITS;
+            if (targetPage != page) {
+                rank = prefix()[targetPage];
+                page = targetPage;
+                word = 0;
+            }
+            int targetWord = (slot & PAGE_MASK) >>> WORD_BITS;
+            for (; word < targetWord; word++) {
+                rank += Long.bitCount(pages[page][word]);
+            }
+            sortedSlots[i] = rank + Long.bitCount(pages[page][word] & ((1L << slot) - 1));
+        }
+    }
+
+    private int[] prefix() {
+        int[] current = prefix;
+        if (current == null) {
+            current = new int[pages.length];
+            int total = 0;
+            for (int page = 0; page < pages.length; page++) {
+                current[page] = total;
+                total += counts[page];
+            }
+            prefix = current;
+        }
+        return current;
+    }
+
+    private long[] ownPage(int page) {
+        if (page >= pages.length) {
+            int length = Math.max(page + 1, pages.length * 2);
+            int from = pages.length;
+            pages = Arrays.copyOf(pages, length);
+            counts = Arrays.copyOf(counts, length);
+            owned = Arrays.copyOf(owned, length);
+            Arrays.fill(pages, from, length, EMPTY_PAGE);
+        }
+        if (!owned[page]) {
+            pages[page] = pages[page].clone();
+            owned[page] = true;
+        }
+        return pages[page];
+    }
+
+}
@@ -0,0 +1,91 @@
+package store;
+
+import task.Task;
+import task.state.TaskState;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class StateIndex {
+
+    private final Map<Class<? extends TaskState>, SlotBits> partitions;
+
+    public StateIndex() {
+        partitions = new HashMap<>();
+    }
+
+    private StateIndex(Map<Class<? extends TaskState>, SlotBits> partitions) {
+        this.partitions = partitions;
+    }
+
+    StateIndex copy() {
+        Map<Class<? extends TaskState>, SlotBits> copied = new HashMap<>();
+        partitions.forEach((state, partition) -> copied.put(state, partition.copy()));
+        return new StateIndex(copied);
+    }
+
+    void clear() {
+        partitions.clear();
+    }
+
+    void added(int index, Task task) {
+        added(index, task.getState());
+    }
+
+    void added(int index, TaskState state) {
+        partitionOf(state).set(index);
+    }
+
+    void vacated(int index, Task task) {
+        partitionOf(task.getState()).clear(index);
+    }
+
+    void replaced(int index, Task previous, Task task) {
+        if (previous.getState().getClass() == task.getState().getClass()) {
+            return;
+        }
+        partitionOf(previous.getState()).clear(index);
+        partitionOf(task.getState()).set(index);
+    }
+
+    public int count(Class<? extends TaskState> state) {
+        SlotBits partition = partitions.get(state);
+        return partition == null ? 0 : partition.count();
+    }
+
+    public int[] indexesOf(Class<? extends TaskState> state) {
+        SlotBits partition = partitions.get(state);
+        return partition == null ? new int[0] : partition.toArray();
+    }
+
+    @SafeVarargs
+    public final int[] indexesOf(Class<? extends TaskState>... states) {
+        int[] merged = new int[0];
+        for (Class<? extends TaskState> state : states) {
+            merged = merge(merged, indexesOf(state));
+        }
+        return merged;
+    }
+
+    private SlotBits partitionOf(TaskState state) {
+        return partitions.computeIfAbsent(state.getClass(), key -> new SlotBits());
+    }
+
+    private static int[] merge(int[] left, int[] right) {
+        int[] merged = new int[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < left.length && j < right.length) {
+            merged[k++] = left[i] < right[j] ? left[i++] : right[j++];
+        }
+        while (i < left.length) {
+            merged[k++] = left[i++];
+        }
+        while (j < right.length) {
+            merged[k++] = right[j++];
+        }
+        return merged;
+    }
+
+}
@@ -0,0 +1,116 @@
+package store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+final class StringArena {
+
+    private static final int OFFSET_BITS = 20;
+    private static final int PAGE_SIZE = 1 << OFFSET_BITS;
+    private static final int OFFSET_MASK = PAGE_SIZE - 1;
+    private static final int MAX_PAGES = 1 << (Integer.SIZE - OFFSET_BITS);
+    private static final int MAX_LENGTH_PREFIX = 5;
+    private static final int CACHE_SIZE = 4096;
+
+    private volatile byte[][] pages;
+    private int pageCount;
+    private int currentPage;
+    private int position;
+    private long size;
+    private final String[] cachedValues;
+    private final int[] cachedRefs;
+
+    StringArena() {
+        this.pages = new byte[4][];
+        this.currentPage = -1;
+        this.position = PAGE_SIZE;
+        this.cachedValues = new String[CACHE_SIZE];
+        this.cachedRefs = new int[CACHE_SIZE];
+    }
+
+    int append(String value) {
+        int slot = value.hashCode() & (CACHE_SIZE - 1);
+        if (value.equals(cachedValues[slot])) {
+            return cachedRefs[slot];
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int required = MAX_LENGTH_PREFIX + bytes.length;
+        int page;
+        if (required > PAGE_SIZE) {
+            page = addPage(new byte[required]);
+        } else {
+            if (position + required > PAGE_SIZE) {
+                currentPage = addPage(new byte[PAGE_SIZE]);
+                position = 0;
+            }
+            page = currentPage;
+        }
+        int offset = page == currentPage ? position : 0;
+        byte[] target = pages[page];
+        int start = writeLength(target, offset, bytes.length);
+        System.arraycopy(bytes, 0, target, start, bytes.length);
+        if (page == currentPage) {
+            position = start + bytes.length;
+        }
+        size += bytes.length;
+        int ref = (page << OFFSET_BITS) | offset;
+        cachedValues[slot] = value;
+        cachedRefs[slot] = ref;
+        return ref;
+    }
+
+    String get(int ref) {
+        byte[] page = pages[ref >>> OFFSET_BITS];
+        int offset = ref & OFFSET_MASK;
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = page[offset++];
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return new String(page, offset, length, StandardCharsets.UTF_8);
+    }
+
+    int lengthOf(int ref) {
+        byte[] page = pages[ref >>> OFFSET_BITS];
+        int offset = ref & OFFSET_MASK;
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = page[offset++];
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return length;
+    }
+
+    long size() {
+        return size;
+    }
+
+    private static int writeLength(byte[] target, int offset, int length) {
+        while ((length & ~0x7F) != 0) {
+            target[offset++] = (byte) ((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        target[offset++] = (byte) length;
+        return offset;
+    }
+
+    private int addPage(byte[] page) {
+        if (pageCount == MAX_PAGES) {
+            throw new IllegalStateException("The compact task store is out of string space");
+        }
+        byte[][] current = pages;
+        if (pageCount == current.length) {
+            current = Arrays.copyOf(current, pageCount * 2);
+        }
+        current[pageCount] = page;
+        pages = current;
+        return pageCount++;
+    }
+
+}
@@ -0,0 +1,127 @@
+package store;
+
+import task.Task;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+final class TaskPages extends AbstractList<Task> implements RandomAccess {
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private Task[][] pages;
+    private boolean[] owned;
+    private int size;
+
+    TaskPages() {
+        this.pages = new Task[0][];
+        this.owned = new boolean[0];
+    }
+
+    private TaskPages(TaskPages source) {
+        this.pages = source.pages.clone();
+        this.owned = new boolean[pages.length];
+        this.size = source.size;
+    }
+
+    TaskPages copy() {
+        return new TaskPages(this);
+    }
+
+    @Override
+    public Task get(int i) {
+        Objects.checkIndex(i, size);
+        return pages[i >>> PAGE_BITS][i & PAGE_MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task set(int i, Task task) {
+        Objects.checkIndex(i, size);
+        Task[] page = ownPage(i >>> PAGE_BITS);
+        Task previous = page[i & PAGE_MASK];
+        page[i & PAGE_MASK] = task;
+        return previous;
+    }
+
+    @Override
+    public void add(int i, Task task) {
+        Objects.checkIndex(i, size + 1);
+        ownPage(size >>> PAGE_BITS);
+        size++;
+        for (int j = size - 1; j > i; j--) {
+            set(j, get(j - 1));
+        }
+        set(i, task);
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int i) {
+        Task removed = get(i);
+        for (int j = i; j < size - 1; j++) {
+            set(j, get(j + 1));
+        }
+        set(size - 1, null);
+        size--;
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Task> filter) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            Task task = get(i);
+            if (!filter.test(task)) {
+                if (kept != i) {
+                    set(kept, task);
+                }
+                kept++;
+            }
+        }
+        if (kept == size) {
+            return false;
+        }
+        for (int i = kept; i < size; i++) {
+            set(i, null);
+        }
+        size = kept;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        pages = new Task[0][];
+        owned = new boolean[0];
+        size = 0;
+        modCount++;
+    }
+
+    private Task[] ownPage(int page) {
+        if (page >= pages.length) {
+            int length = Math.max(page + 1, pages.length * 2);
+            pages = Arrays.copyOf(pages, length);
+            owned = Arrays.copyOf(owned, length);
+        }
+        if (pages[page] == null) {
+            pages[page] = new Task[PAGE_SIZE];
+            owned[page] = true;
+        } else if (!owned[page]) {
+            pages[page] = pages[page].clone();
+            owned[page] = true;
+        }
+        return pages[page];
+    }
+
+}
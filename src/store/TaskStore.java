@@ -0,0 +1,241 @@
+package store;
+
+import task.Task;
+import task.state.TaskState;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+public class TaskStore {
+
+    private static final boolean COMPACT = "compact".equalsIgnoreCase(System.getProperty("tasks.store"));
+
+    private final ReentrantLock writeLock;
+    private final List<ChangeListener> listeners;
+    private volatile IdAllocator idAllocator;
+    private volatile Snapshot snapshot;
+    private Object origin;
+
+    public interface ChangeListener {
+        void changed(Task previous, Task current);
+    }
+
+    public interface IdAllocator {
+        long allocate(long floor);
+    }
+
+    public static final class Snapshot {
+
+        private final long version;
+        private final IndexedTaskList table;
+
+        private Snapshot(long version, IndexedTaskList table) {
+            this.version = version;
+            this.table = table;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public List<Task> tasks() {
+            return new SlotList(table, table.tombstones() > 0);
+        }
+
+        public boolean isEmpty() {
+            return table.size() == 0;
+        }
+
+        public int size() {
+            return table.size();
+        }
+
+        public Task get(int index) {
+            return tasks().get(index);
+        }
+
+        public Task find(long id) {
+            int slot = table.slotOf(id);
+            return slot < 0 ? null : table.slot(slot);
+        }
+
+        public int indexOf(long id) {
+            int slot = table.slotOf(id);
+            if (slot < 0) {
+                return -1;
+            }
+            return table.tombstones() == 0 ? slot : table.live().rank(slot);
+        }
+
+        public int count(Class<? extends TaskState> state) {
+            return table.index().count(state);
+        }
+
+        @SafeVarargs
+        public final int[] indexesOf(Class<? extends TaskState>... states) {
+            int[] indexes = table.index().indexesOf(states);
+            if (table.tombstones() > 0) {
+                table.live().ranks(indexes);
+            }
+            return indexes;
+        }
+    }
+
+    private static final class SlotList extends AbstractList<Task> implements RandomAccess {
+        private final IndexedTaskList table;
+        private final boolean sparse;
+
+        private SlotList(IndexedTaskList table, boolean sparse) {
+            this.table = table;
+            this.sparse = sparse;
+        }
+
+        @Override
+        public Task get(int index) {
+            Objects.checkIndex(index, size());
+            return table.slot(sparse ? table.live().select(index) : index);
+        }
+
+        @Override
+        public int size() {
+            return table.size();
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            if (!sparse) {
+                return super.iterator();
+            }
+            return new Iterator<>() {
+                private int slot = table.live().next(0);
+
+                @Override
+                public boolean hasNext() {
+                    return slot >= 0;
+                }
+
+                @Override
+                public Task next() {
+                    if (slot < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    Task task = table.slot(slot);
+                    slot = table.live().next(slot + 1);
+                    return task;
+                }
+            };
+        }
+    }
+
+    public TaskStore() {
+        this(COMPACT);
+    }
+
+    public TaskStore(boolean compact) {
+        writeLock = new ReentrantLock();
+        listeners = new CopyOnWriteArrayList<>();
+        snapshot = new Snapshot(0, new IndexedTaskList(compact));
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    public long version() {
+        return snapshot.version();
+    }
+
+    public void subscribe(ChangeListener listener) {
+        subscribe(listener, true);
+    }
+
+    public void subscribe(ChangeListener listener, boolean replay) {
+        writeLock.lock();
+        try {
+            if (replay) {
+                for (Task task : snapshot.tasks()) {
+                    listener.changed(null, task);
+                }
+            }
+            listeners.add(listener);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void unsubscribe(ChangeListener listener) {
+        writeLock.lock();
+        try {
+            listeners.remove(listener);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public Object origin() {
+        return writeLock.isHeldByCurrentThread() ? origin : null;
+    }
+
+    public void setIdAllocator(IdAllocator idAllocator) {
+        this.idAllocator = idAllocator;
+    }
+
+    public <R> R inspect(Function<Snapshot, R> inspection) {
+        writeLock.lock();
+        try {
+            return inspection.apply(snapshot);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public <R> R update(Object origin, Function<IndexedTaskList, R> mutation) {
+        writeLock.lock();
+        try {
+            this.origin = origin;
+            return update(mutation);
+        } finally {
+            this.origin = null;
+            writeLock.unlock();
+        }
+    }
+
+    public <R> R update(Function<IndexedTaskList, R> mutation) {
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            IndexedTaskList updated = new IndexedTaskList(current.table);
+            updated.allocateIdsWith(idAllocator);
+            if (!listeners.isEmpty()) {
+                updated.trackChanges();
+            }
+            R result = mutation.apply(updated);
+            updated.compactIfNeeded();
+            snapshot = new Snapshot(current.version() + 1, updated);
+            updated.forEachChange((previous, task) -> {
+                for (ChangeListener listener : listeners) {
+                    listener.changed(previous, task);
+                }
+            });
+            return result;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void replaceAll(List<Task> tasks) {
+        update(current -> {
+            current.clear();
+            current.addAll(tasks);
+            return null;
+        });
+    }
+
+}
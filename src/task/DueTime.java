@@ -0,0 +1,49 @@
+package task;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+public class DueTime {
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String NONE = "none";
+    private static final String TIME_ERROR_MESSAGE = "Enter a time like 2026-01-31 18:00, +30m, +2h, +1d or none.";
+
+    public static String format(long millis) {
+        return FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()));
+    }
+
+    public static long parse(String text, long now) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException(TIME_ERROR_MESSAGE);
+        }
+        String value = text.strip();
+        if (value.equalsIgnoreCase(NONE)) {
+            return 0;
+        }
+        try {
+            if (value.startsWith("+") && value.length() > 2) {
+                long amount = Long.parseLong(value.substring(1, value.length() - 1));
+                TimeUnit unit = switch (value.charAt(value.length() - 1)) {
+                    case 's' -> TimeUnit.SECONDS;
+                    case 'm' -> TimeUnit.MINUTES;
+                    case 'h' -> TimeUnit.HOURS;
+                    case 'd' -> TimeUnit.DAYS;
+                    default -> throw new IllegalArgumentException(TIME_ERROR_MESSAGE);
+                };
+                if (amount <= 0) {
+                    throw new IllegalArgumentException(TIME_ERROR_MESSAGE);
+                }
+                return Math.addExact(now, unit.toMillis(amount));
+            }
+            return LocalDateTime.parse(value.replace('T', ' '), FORMAT).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException | NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException(TIME_ERROR_MESSAGE);
+        }
+    }
+
+}
@@ -1,19 +1,43 @@
 package task;
 
 import task.state.TaskState;
-import task.state.Pending;
 import task.state.Completed;
 
 public class Task {
 
+    private long id;
     private String title;
     private String description;
     private TaskState state;
+    private long dueAt;
+    private long remindAt;
 
     public Task(String title, String description) {
+        this(0, title, description);
+    }
+
+    public Task(long id, String title, String description) {
+        this.id = id;
         this.title = title;
         this.description = description;
-        this.state = new Pending();
+        this.state = TaskState.PENDING;
+    }
+
+    public Task(Task task) {
+        this.id = task.id;
+        this.title = task.title;
+        this.description = task.description;
+        this.state = task.state;
+        this.dueAt = task.dueAt;
+        this.remindAt = task.remindAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
     }
 
     public String getTitle() {
@@ -40,12 +64,35 @@ public class Task {
         this.state = state;
     }
 
+    public long getDueAt() {
+        return dueAt;
+    }
+
+    public void setDueAt(long dueAt) {
+        this.dueAt = dueAt;
+    }
+
+    public long getRemindAt() {
+        return remindAt;
+    }
+
+    public void setRemindAt(long remindAt) {
+        this.remindAt = remindAt;
+    }
+
+    public boolean isTimed() {
+        return dueAt != 0 || remindAt != 0;
+    }
+
     public boolean isDone() {
         return state instanceof Completed;
     }
 
     public String getInfo() {
-        return state.getInfo(this);
+        if (dueAt == 0) {
+            return state.getInfo(this);
+        }
+        return state.getInfo(this) + " Due " + DueTime.format(dueAt) + ".";
     }
 
     public void changeDone() {
@@ -4,6 +4,14 @@ import task.Task;
 
 public class Completed extends TaskState {
 
+    Completed() {
+    }
+
+    @Override
+    public byte getCode() {
+        return 2;
+    }
+
     @Override
     public String getInfo(Task task) {
         return "\"" + task.getTitle() + " - " + task.getDescription() + "\" is completed.";
@@ -11,7 +19,7 @@ public class Completed extends TaskState {
 
     @Override
     public void changeDone(Task task) {
-        task.setState(new Pending());
+        task.setState(PENDING);
     }
 
     @Override
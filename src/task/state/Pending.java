@@ -4,6 +4,14 @@ import task.Task;
 
 public class Pending extends TaskState {
 
+    Pending() {
+    }
+
+    @Override
+    public byte getCode() {
+        return 0;
+    }
+
     @Override
     public String getInfo(Task task) {
         return "\"" + task.getTitle() + " - " + task.getDescription() + "\" is pending.";
@@ -11,12 +19,12 @@ public class Pending extends TaskState {
 
     @Override
     public void changeDone(Task task) {
-        task.setState(new Completed());
+        task.setState(COMPLETED);
     }
 
     @Override
     public void changePriority(Task task) {
-        task.setState(new Urgent());
+        task.setState(URGENT);
     }
 
 }
@@ -4,6 +4,28 @@ import task.Task;
 
 public abstract class TaskState {
 
+    public static final Pending PENDING = new Pending();
+    public static final Urgent URGENT = new Urgent();
+    public static final Completed COMPLETED = new Completed();
+
+    public static TaskState of(String name) {
+        return switch (name) {
+            case "Completed" -> COMPLETED;
+            case "Urgent" -> URGENT;
+            default -> PENDING;
+        };
+    }
+
+    public static TaskState of(byte code) {
+        return switch (code) {
+            case 2 -> COMPLETED;
+            case 1 -> URGENT;
+            default -> PENDING;
+        };
+    }
+
+    public abstract byte getCode();
+
     public abstract String getInfo(Task task);
 
     public abstract void changeDone(Task task);
@@ -4,6 +4,14 @@ import task.Task;
 
 public class Urgent extends Pending {
 
+    Urgent() {
+    }
+
+    @Override
+    public byte getCode() {
+        return 1;
+    }
+
     @Override
     public String getInfo(Task task) {
         return "[URGENT] " + super.getInfo(task);
@@ -11,7 +19,7 @@ public class Urgent extends Pending {
 
     @Override
     public void changePriority(Task task) {
-        task.setState(new Pending());
+        task.setState(PENDING);
     }
 
 }
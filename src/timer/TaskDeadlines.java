@@ -0,0 +1,108 @@
+package timer;
+
+import executor.TaskExecutors;
+import metrics.TaskMetrics;
+import store.TaskStore;
+import task.Task;
+import task.state.Urgent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class TaskDeadlines implements TaskStore.ChangeListener {
+
+    private static final long TICK_MILLIS = Math.max(1, Long.getLong("tasks.timer.tickMillis", 1000));
+    private static final TimingWheel<Deadline> WHEEL = new TimingWheel<>(TICK_MILLIS, System.currentTimeMillis());
+
+    private static boolean ticking;
+
+    private final ExpiryListener listener;
+    private volatile boolean closed;
+
+    public interface ExpiryListener {
+        void expired(List<Long> due, List<Long> reminders, long now);
+    }
+
+    private record Deadline(TaskDeadlines owner, long id, boolean reminder) {
+    }
+
+    private static final class Expired {
+        private final List<Long> due = new ArrayList<>();
+        private final List<Long> reminders = new ArrayList<>();
+    }
+
+    public TaskDeadlines(ExpiryListener listener) {
+        this.listener = listener;
+        startTicking();
+    }
+
+    private static synchronized void startTicking() {
+        if (!ticking) {
+            TaskExecutors.scheduleAtFixedRate(TaskDeadlines::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+            ticking = true;
+        }
+    }
+
+    private static void tick() {
+        long now = System.currentTimeMillis();
+        Map<TaskDeadlines, Expired> fired = new LinkedHashMap<>();
+        WHEEL.advance(now, deadline -> {
+            Expired expired = fired.computeIfAbsent(deadline.owner(), owner -> new Expired());
+            (deadline.reminder() ? expired.reminders : expired.due).add(deadline.id());
+        });
+        fired.forEach((owner, expired) -> {
+            TaskMetrics.DEADLINE_COUNT.add(expired.due.size() + expired.reminders.size());
+            if (!owner.closed) {
+                owner.listener.expired(expired.due, expired.reminders, now);
+            }
+        });
+    }
+
+    public static boolean escalates(Task task, long now) {
+        return task != null && task.getDueAt() != 0 && task.getDueAt() <= now
+                && !task.isDone() && !(task.getState() instanceof Urgent);
+    }
+
+    public static boolean reminds(Task task, long now) {
+        return task != null && task.getRemindAt() != 0 && task.getRemindAt() <= now;
+    }
+
+    public void retry(long id, boolean reminder, long now) {
+        if (!closed) {
+            WHEEL.schedule(new Deadline(this, id, reminder), now + TICK_MILLIS);
+        }
+    }
+
+    public static int pending() {
+        return WHEEL.size();
+    }
+
+    @Override
+    public void changed(Task previous, Task current) {
+        if (closed) {
+            return;
+        }
+        if (previous != null && previous.isTimed()) {
+            WHEEL.cancel(new Deadline(this, previous.getId(), false));
+            WHEEL.cancel(new Deadline(this, previous.getId(), true));
+        }
+        if (current == null || !current.isTimed()) {
+            return;
+        }
+        if (current.getDueAt() != 0 && !current.isDone() && !(current.getState() instanceof Urgent)) {
+            WHEEL.schedule(new Deadline(this, current.getId(), false), current.getDueAt());
+        }
+        if (current.getRemindAt() != 0) {
+            WHEEL.schedule(new Deadline(this, current.getId(), true), current.getRemindAt());
+        }
+    }
+
+    public void close() {
+        closed = true;
+        WHEEL.cancelIf(deadline -> deadline.owner() == this);
+    }
+
+}
@@ -0,0 +1,149 @@
+package timer;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+public class TimingWheel<K> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final long tickMillis;
+    private final Node<K>[][] wheels;
+    private final Map<K, Node<K>> nodes;
+    private long currentTick;
+
+    private static final class Node<K> {
+        private final K key;
+        private long deadline;
+        private Node<K> previous;
+        private Node<K> next;
+
+        private Node(K key) {
+            this.key = key;
+            this.previous = this;
+            this.next = this;
+        }
+
+        private void unlink() {
+            previous.next = next;
+            next.previous = previous;
+            previous = this;
+            next = this;
+        }
+
+        private void append(Node<K> node) {
+            node.previous = previous;
+            node.next = this;
+            previous.next = node;
+            previous = node;
+        }
+
+        private boolean isEmpty() {
+            return next == this;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.wheels = (Node<K>[][]) new Node<?>[LEVELS][SLOTS];
+        for (Node<K>[] wheel : wheels) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheel[slot] = new Node<>(null);
+            }
+        }
+        this.nodes = new HashMap<>();
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    public synchronized void schedule(K key, long deadlineMillis) {
+        Node<K> node = nodes.get(key);
+        if (node == null) {
+            node = new Node<>(key);
+            nodes.put(key, node);
+        } else {
+            node.unlink();
+        }
+        node.deadline = Math.max(currentTick, (deadlineMillis + tickMillis - 1) / tickMillis);
+        place(node);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node == null) {
+            return false;
+        }
+        node.unlink();
+        return true;
+    }
+
+    public synchronized void cancelIf(Predicate<K> filter) {
+        Iterator<Node<K>> iterator = nodes.values().iterator();
+        while (iterator.hasNext()) {
+            Node<K> node = iterator.next();
+            if (filter.test(node.key)) {
+                node.unlink();
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    public synchronized void advance(long nowMillis, Consumer<K> expired) {
+        long target = nowMillis / tickMillis;
+        while (currentTick <= target) {
+            if (nodes.isEmpty()) {
+                currentTick = target + 1;
+                return;
+            }
+            for (int level = 1; level < LEVELS && (currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0; level++) {
+                cascade(wheels[level][slotOf(currentTick, level)]);
+            }
+            Node<K> head = wheels[0][slotOf(currentTick, 0)];
+            while (!head.isEmpty()) {
+                Node<K> node = head.next;
+                node.unlink();
+                if (node.deadline > currentTick) {
+                    place(node);
+                } else {
+                    nodes.remove(node.key);
+                    expired.accept(node.key);
+                }
+            }
+            currentTick++;
+        }
+    }
+
+    private void cascade(Node<K> head) {
+        while (!head.isEmpty()) {
+            Node<K> node = head.next;
+            node.unlink();
+            place(node);
+        }
+    }
+
+    private void place(Node<K> node) {
+        long tick = Math.min(node.deadline, currentTick + MAX_SPAN - 1);
+        long delta = tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        wheels[level][slotOf(tick, level)].append(node);
+    }
+
+    private static int slotOf(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+}
@@ -9,6 +9,8 @@ public class TaskValidator {
     private static final String NAME_ERROR_MESSAGE = "Name cannot be empty. Please enter it again.";
     private static final String TASK_TITLE_ERROR_MESSAGE = "Title cannot be empty. Please enter it again.";
     private static final String TASK_DESCRIPTION_ERROR_MESSAGE = "Description cannot be empty. Please enter it again.";
+    private static final String SEARCH_QUERY_ERROR_MESSAGE = "Search query cannot be empty. Please enter it again.";
+    private static final String MATCH_TEXT_ERROR_MESSAGE = "Text to match cannot be empty. Please enter it again.";
     private static final String TASK_COMPLETED_ERROR_MESSAGE = "Completed task's priority cannot be modified.";
 
     public static void validateName(String name) {
@@ -29,8 +31,24 @@ public class TaskValidator {
         }
     }
 
+    public static void validateSearchQuery(String query) {
+        if (query.isBlank()) {
+            throw new IllegalArgumentException(SEARCH_QUERY_ERROR_MESSAGE);
+        }
+    }
+
+    public static void validateMatchText(String text) {
+        if (text.isBlank()) {
+            throw new IllegalArgumentException(MATCH_TEXT_ERROR_MESSAGE);
+        }
+    }
+
     public static void validateChoice(String choice) {
-        if (!choice.equals("1") && !choice.equals("2") && !choice.equals("3") && !choice.equals("4") && !choice.equals("0")) {
+        validateChoice(choice, 4);
+    }
+
+    public static void validateChoice(String choice, int maxChoice) {
+        if (choice.length() != 1 || choice.charAt(0) < '0' || choice.charAt(0) > '0' + maxChoice) {
             throw new IllegalArgumentException(INPUT_ERROR_MESSAGE);
         }
     }
@@ -41,6 +59,12 @@ public class TaskValidator {
         }
     }
 
+    public static void validatePageCommand(String command, int taskSize) {
+        if (!command.equals("n") && !command.equals("p")) {
+            validateTaskIndex(command, taskSize);
+        }
+    }
+
     public static void validateIsPendingOrUrgent(Task task) {
         if (task.getState() instanceof Completed) {
             throw new IllegalArgumentException(TASK_COMPLETED_ERROR_MESSAGE);
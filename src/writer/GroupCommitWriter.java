@@ -0,0 +1,262 @@
+package writer;
+
+import executor.TaskExecutors;
+import metrics.TaskMetrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class GroupCommitWriter {
+
+    private static final long WINDOW_MILLIS = Long.getLong("tasks.commit.windowMillis", 2);
+    private static final int WINDOW_BYTES = Integer.getInteger("tasks.commit.windowBytes", 64 * 1024);
+    private static final boolean FSYNC = !"false".equals(System.getProperty("tasks.commit.fsync"));
+
+    private static final Map<Path, GroupCommitWriter> writers = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final long windowNanos;
+    private final int windowBytes;
+    private final LinkedBlockingQueue<Operation> queue;
+    private final AtomicBoolean draining;
+    private volatile CommitListener listener;
+    private Operation carried;
+
+    public interface CommitListener {
+        void committed(long start, long end, boolean replaced);
+    }
+
+    private enum Kind {
+        WRITE, COMMIT, EXECUTE
+    }
+
+    private record Operation(Kind kind, byte[] data, boolean replace, Runnable action, int size,
+                             CompletableFuture<Void> future) {
+    }
+
+    public GroupCommitWriter(Path path, long windowMillis, int windowBytes) {
+        this.path = path;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.windowBytes = windowBytes;
+        this.queue = new LinkedBlockingQueue<>();
+        this.draining = new AtomicBoolean();
+    }
+
+    public static GroupCommitWriter of(Path path) {
+        return writers.computeIfAbsent(path.toAbsolutePath().normalize(),
+                p -> new GroupCommitWriter(p, WINDOW_MILLIS, WINDOW_BYTES));
+    }
+
+    public static GroupCommitWriter of(Path path, CommitListener listener) {
+        GroupCommitWriter writer = of(path);
+        writer.listener = listener;
+        return writer;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public CompletableFuture<Void> append(byte[] data) {
+        return submit(new Operation(Kind.WRITE, data, false, null, data.length, new CompletableFuture<>()));
+    }
+
+    public CompletableFuture<Void> replace(byte[] data) {
+        return submit(new Operation(Kind.WRITE, data, true, null, data.length, new CompletableFuture<>()));
+    }
+
+    public CompletableFuture<Void> commit(int size, Runnable flush) {
+        return submit(new Operation(Kind.COMMIT, null, false, flush, size, new CompletableFuture<>()));
+    }
+
+    public CompletableFuture<Void> execute(Runnable action) {
+        return submit(new Operation(Kind.EXECUTE, null, false, action, 0, new CompletableFuture<>()));
+    }
+
+    private CompletableFuture<Void> submit(Operation operation) {
+        queue.add(operation);
+        if (draining.compareAndSet(false, true)) {
+            TaskExecutors.disk().execute(this::drain);
+        }
+        return operation.future();
+    }
+
+    private void drain() {
+        while (true) {
+            Operation first;
+            while ((first = nextOperation()) != null) {
+                commit(first);
+            }
+            draining.set(false);
+            if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private Operation nextOperation() {
+        if (carried != null) {
+            Operation operation = carried;
+            carried = null;
+            return operation;
+        }
+        return queue.poll();
+    }
+
+    private void commit(Operation first) {
+        List<Operation> batch = first.kind() == Kind.EXECUTE ? List.of(first) : collectBatch(first);
+        try {
+            if (first.kind() == Kind.WRITE) {
+                write(batch);
+            } else {
+                batch.get(batch.size() - 1).action().run();
+            }
+            complete(batch, null);
+        } catch (IOException | RuntimeException e) {
+            complete(batch, e);
+        }
+    }
+
+    private void complete(List<Operation> batch, Throwable failure) {
+        TaskExecutors.disk().execute(() -> {
+            for (Operation operation : batch) {
+                if (failure == null) {
+                    operation.future().complete(null);
+                } else {
+                    operation.future().completeExceptionally(failure);
+                }
+            }
+        });
+    }
+
+    private List<Operation> collectBatch(Operation first) {
+        List<Operation> batch = new ArrayList<>();
+        batch.add(first);
+        long bytes = first.size();
+        long deadline = System.nanoTime() + windowNanos;
+        try {
+            while (bytes < windowBytes) {
+                long remaining = deadline - System.nanoTime();
+                Operation next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                if (next == null) {
+                    break;
+                }
+                if (next.kind() != first.kind()) {
+                    carried = next;
+                    break;
+                }
+                batch.add(next);
+                bytes += next.size();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return batch;
+    }
+
+    private void write(List<Operation> batch) throws IOException {
+        int start = 0;
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            if (batch.get(i).replace()) {
+                start = i;
+                break;
+            }
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        for (int i = start; i < batch.size(); i++) {
+            buffer.writeBytes(batch.get(i).data());
+        }
+        if (batch.get(start).replace()) {
+            replaceAtomically(path, buffer.toByteArray());
+            notifyListener(0, buffer.size(), true);
+            return;
+        }
+        long position = appendDurably(path, buffer.toByteArray());
+        notifyListener(position, position + buffer.size(), false);
+    }
+
+    private void notifyListener(long start, long end, boolean replaced) {
+        CommitListener current = listener;
+        if (current != null) {
+            current.committed(start, end, replaced);
+        }
+    }
+
+    public static long appendDurably(Path path, byte[] data) throws IOException {
+        long position;
+        long started = TaskMetrics.APPEND.start();
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            position = channel.size();
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            force(channel);
+        }
+        if (position == 0) {
+            forceDirectory(path);
+        }
+        TaskMetrics.APPEND.stop(started);
+        TaskMetrics.BYTES_WRITTEN.add(data.length);
+        return position;
+    }
+
+    public static void replaceAtomically(Path path, byte[] data) throws IOException {
+        long started = TaskMetrics.REWRITE.start();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            force(channel);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(path);
+        TaskMetrics.REWRITE.stop(started);
+        TaskMetrics.BYTES_WRITTEN.add(data.length);
+    }
+
+    public static void forceDirectory(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        if (!FSYNC || directory == null) {
+            return;
+        }
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (channel) {
+            force(channel);
+        }
+    }
+
+    private static void force(FileChannel channel) throws IOException {
+        if (!FSYNC) {
+            return;
+        }
+        long started = TaskMetrics.FSYNC.start();
+        channel.force(true);
+        TaskMetrics.FSYNC.stop(started);
+        TaskMetrics.FSYNC_COUNT.increment();
+    }
+
+}
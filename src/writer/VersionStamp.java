@@ -0,0 +1,140 @@
+package writer;
+
+import metrics.TaskMetrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class VersionStamp {
+
+    private static final int VERSION_OFFSET = 0;
+    private static final int NEXT_ID_OFFSET = 8;
+    private static final int CHECKPOINT_OFFSET = 16;
+    private static final int STAMP_BYTES = 24;
+    private static final boolean FSYNC = !"false".equals(System.getProperty("tasks.commit.fsync"));
+
+    private static final Map<Path, VersionStamp> stamps = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final ReentrantLock lock;
+    private FileChannel channel;
+
+    public interface Commit<R> {
+        R run(long version) throws IOException;
+    }
+
+    private interface Access<R> {
+        R run() throws IOException;
+    }
+
+    private VersionStamp(Path path) {
+        this.path = path;
+        this.lock = new ReentrantLock();
+    }
+
+    public static VersionStamp of(Path path) {
+        return stamps.computeIfAbsent(path.toAbsolutePath().normalize(), VersionStamp::new);
+    }
+
+    public long read() throws IOException {
+        return locked(true, () -> readLong(VERSION_OFFSET));
+    }
+
+    public long readCheckpoint() throws IOException {
+        return locked(true, () -> readLong(CHECKPOINT_OFFSET));
+    }
+
+    public <R> R commit(Commit<R> commit) throws IOException {
+        long started = TaskMetrics.COMMIT_LOCK.start();
+        return locked(false, () -> {
+            TaskMetrics.COMMIT_LOCK.stop(started);
+            long version = readLong(VERSION_OFFSET);
+            R result = commit.run(version);
+            writeLong(VERSION_OFFSET, version + 1);
+            force();
+            return result;
+        });
+    }
+
+    public <R> R recover(Commit<R> recovery) throws IOException {
+        return locked(false, () -> recovery.run(readLong(VERSION_OFFSET)));
+    }
+
+    public long reserveId(long floor) throws IOException {
+        return locked(false, () -> {
+            long id = Math.max(floor, readLong(NEXT_ID_OFFSET));
+            writeLong(NEXT_ID_OFFSET, id + 1);
+            return id;
+        });
+    }
+
+    public void markCheckpoint(long checkpoint) throws IOException {
+        if (!lock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("Checkpoints must be marked inside a commit");
+        }
+        writeLong(CHECKPOINT_OFFSET, checkpoint);
+        force();
+    }
+
+    private <R> R locked(boolean shared, Access<R> access) throws IOException {
+        lock.lock();
+        try {
+            if (lock.getHoldCount() > 1) {
+                return access.run();
+            }
+            FileLock fileLock = channel().lock(0, Long.MAX_VALUE, shared);
+            try {
+                return access.run();
+            } finally {
+                fileLock.release();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        return channel;
+    }
+
+    private void force() throws IOException {
+        if (FSYNC) {
+            channel.force(false);
+        }
+    }
+
+    private long readLong(int offset) throws IOException {
+        if (channel.size() < offset + Long.BYTES) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                return 0;
+            }
+        }
+        return buffer.flip().getLong();
+    }
+
+    private void writeLong(int offset, long value) throws IOException {
+        long size = channel.size();
+        if (size < STAMP_BYTES) {
+            channel.write(ByteBuffer.allocate(Math.toIntExact(STAMP_BYTES - size)), size);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(value).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, offset + buffer.position());
+        }
+    }
+
+}